@@ -3,7 +3,7 @@ CREATE TYPE user_role AS ENUM ('ADMIN', 'GALLERY_OWNER', 'ARTIST');
 CREATE TYPE gallery_status AS ENUM ('PENDING', 'APPROVED', 'REJECTED');
 CREATE TYPE exhibition_status AS ENUM ('DRAFT', 'ACTIVE', 'FINISHED');
 CREATE TYPE stand_type AS ENUM ('WALL', 'BOOTH', 'OPEN_SPACE');
-CREATE TYPE stand_status AS ENUM ('AVAILABLE', 'BOOKED');
+CREATE TYPE stand_status AS ENUM ('AVAILABLE', 'BOOKED', 'PENDING');
 CREATE TYPE booking_status AS ENUM ('PENDING', 'CONFIRMED', 'CANCELLED');
 CREATE TYPE artwork_status AS ENUM ('DRAFT', 'PUBLISHED');
 
@@ -125,25 +125,119 @@ CREATE TABLE artworks (
 );
 
 
--- Таблица аудита администраторов
+-- Таблица аудита администраторов. Помесячные партиции по timestamp создает приложение
+-- (LogPartitionService), в DEFAULT попадают только записи вне созданных месяцев
 CREATE TABLE admin_audit_log (
-   id SERIAL PRIMARY KEY,
-   admin_id INTEGER NOT NULL,
+   id BIGSERIAL,
+   admin_id BIGINT NOT NULL,
    action VARCHAR(100) NOT NULL,
-   target_entity_id INTEGER NOT NULL,
-   timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+   target_entity_id BIGINT NOT NULL,
+   timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
 
+   PRIMARY KEY (id, timestamp),
    FOREIGN KEY (admin_id) REFERENCES "users"(id) ON DELETE CASCADE
-);
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE admin_audit_log_default PARTITION OF admin_audit_log DEFAULT;
 
 
--- Таблица активности пользователей
+-- Таблица активности пользователей, партиционирована так же
 CREATE TABLE user_activity_log (
-   id SERIAL PRIMARY KEY,
-   user_id INTEGER NOT NULL,
+   id BIGSERIAL,
+   user_id BIGINT NOT NULL,
    action VARCHAR(100) NOT NULL,
-   timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+   timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+   PRIMARY KEY (id, timestamp),
+   FOREIGN KEY (user_id) REFERENCES "users"(id) ON DELETE CASCADE
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE user_activity_log_default PARTITION OF user_activity_log DEFAULT;
+
+-- Партиции на текущий и три следующих месяца (имена как у LogPartitionService), чтобы
+-- первые записи не попадали в DEFAULT
+DO $$
+DECLARE
+    log_table TEXT;
+    month_start DATE;
+BEGIN
+    FOREACH log_table IN ARRAY ARRAY['user_activity_log', 'admin_audit_log'] LOOP
+        month_start := date_trunc('month', now())::date;
+        WHILE month_start < date_trunc('month', now()) + INTERVAL '4 months' LOOP
+            EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    log_table || '_p' || to_char(month_start, 'YYYYMM'), log_table,
+                    month_start, (month_start + INTERVAL '1 month')::date);
+            month_start := (month_start + INTERVAL '1 month')::date;
+        END LOOP;
+    END LOOP;
+END $$;
+
+
+-- Отозванные JWT (выход из системы), общие для всех узлов приложения
+CREATE TABLE revoked_tokens (
+   id BIGSERIAL PRIMARY KEY,
+   token_hash VARCHAR(64) NOT NULL UNIQUE,
+   expires_at TIMESTAMP NOT NULL,
+   revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+
+
+-- Исходящие письма: пишутся в транзакции бизнес-операции, отправляются фоновым MailDispatcher
+CREATE TABLE email_outbox (
+   id BIGSERIAL PRIMARY KEY,
+   recipient VARCHAR(255) NOT NULL,
+   subject VARCHAR(255) NOT NULL,
+   body TEXT NOT NULL,
+   status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+   attempts INTEGER NOT NULL DEFAULT 0,
+   next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   locked_until TIMESTAMP,
+   last_error TEXT,
+   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   sent_at TIMESTAMP,
+
+   CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+CREATE INDEX idx_email_outbox_due ON email_outbox(next_attempt_at) WHERE status IN ('PENDING', 'SENDING');
+CREATE INDEX idx_email_outbox_sent ON email_outbox(sent_at) WHERE status = 'SENT';
+
+
+-- Индексы для поиска стендов по карте зала и по выставке
+CREATE INDEX idx_exhibition_hall_map_event ON exhibition_hall_map(exhibition_event_id);
+CREATE INDEX idx_exhibition_stand_hall_map ON exhibition_stand(exhibition_hall_map_id);
+
+-- Индексы для выборки бронирований по галереям владельца
+CREATE INDEX idx_gallery_ownership_owner ON gallery_ownership(owner_id, gallery_id);
+CREATE INDEX idx_exhibition_event_gallery ON exhibition_event(gallery_id);
+
+-- Индекс для проверки конфликтов бронирования стенда (PENDING/CONFIRMED)
+CREATE INDEX idx_bookings_stand_status ON bookings(exhibition_stand_id, status);
+
+-- Журналы: выборки по времени и по пользователю внутри отсеченных партиций
+CREATE INDEX idx_user_activity_log_timestamp ON user_activity_log(timestamp);
+CREATE INDEX idx_user_activity_log_user ON user_activity_log(user_id, timestamp);
+CREATE INDEX idx_admin_audit_log_timestamp ON admin_audit_log(timestamp);
+CREATE INDEX idx_admin_audit_log_admin ON admin_audit_log(admin_id, timestamp);
+
+-- На стенде может быть не более одного активного бронирования
+CREATE UNIQUE INDEX uq_bookings_active_stand ON bookings(exhibition_stand_id)
+   WHERE status IN ('PENDING', 'CONFIRMED');
+
+
+-- Токены подтверждения email: один на пользователя, очистка и повторная рассылка идут по expiry_date
+CREATE TABLE email_verification_tokens (
+   id SERIAL PRIMARY KEY,
+   token VARCHAR(255) NOT NULL UNIQUE,
+   user_id BIGINT NOT NULL UNIQUE,
+   expiry_date TIMESTAMP NOT NULL,
+   used BOOLEAN NOT NULL DEFAULT FALSE,
 
    FOREIGN KEY (user_id) REFERENCES "users"(id) ON DELETE CASCADE
 );
 
+CREATE INDEX idx_email_verification_tokens_expiry ON email_verification_tokens(expiry_date);
+
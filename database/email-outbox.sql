@@ -0,0 +1,20 @@
+-- Очередь исходящих писем для уже развернутых баз
+CREATE TABLE IF NOT EXISTS email_outbox (
+   id BIGSERIAL PRIMARY KEY,
+   recipient VARCHAR(255) NOT NULL,
+   subject VARCHAR(255) NOT NULL,
+   body TEXT NOT NULL,
+   status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+   attempts INTEGER NOT NULL DEFAULT 0,
+   next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   locked_until TIMESTAMP,
+   last_error TEXT,
+   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+   sent_at TIMESTAMP,
+
+   CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+-- Выборка готовых к отправке и очистка отправленных
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox(next_attempt_at) WHERE status IN ('PENDING', 'SENDING');
+CREATE INDEX IF NOT EXISTS idx_email_outbox_sent ON email_outbox(sent_at) WHERE status = 'SENT';
@@ -0,0 +1,71 @@
+-- Перевод user_activity_log и admin_audit_log на помесячные партиции для уже развернутых баз.
+-- Выполнять в окно обслуживания: на время копирования журналы недоступны для записи.
+BEGIN;
+
+ALTER TABLE user_activity_log RENAME TO user_activity_log_legacy;
+ALTER TABLE admin_audit_log RENAME TO admin_audit_log_legacy;
+ALTER TABLE user_activity_log_legacy RENAME CONSTRAINT user_activity_log_pkey TO user_activity_log_legacy_pkey;
+ALTER TABLE admin_audit_log_legacy RENAME CONSTRAINT admin_audit_log_pkey TO admin_audit_log_legacy_pkey;
+
+-- Последовательности id переходят к новым таблицам, нумерация продолжается
+CREATE TABLE user_activity_log (
+   id BIGINT NOT NULL DEFAULT nextval('user_activity_log_id_seq'),
+   user_id BIGINT NOT NULL,
+   action VARCHAR(100) NOT NULL,
+   timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+   PRIMARY KEY (id, timestamp),
+   FOREIGN KEY (user_id) REFERENCES "users"(id) ON DELETE CASCADE
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE admin_audit_log (
+   id BIGINT NOT NULL DEFAULT nextval('admin_audit_log_id_seq'),
+   admin_id BIGINT NOT NULL,
+   action VARCHAR(100) NOT NULL,
+   target_entity_id BIGINT NOT NULL,
+   timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+   PRIMARY KEY (id, timestamp),
+   FOREIGN KEY (admin_id) REFERENCES "users"(id) ON DELETE CASCADE
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE user_activity_log_id_seq AS BIGINT OWNED BY user_activity_log.id;
+ALTER SEQUENCE admin_audit_log_id_seq AS BIGINT OWNED BY admin_audit_log.id;
+
+CREATE TABLE user_activity_log_default PARTITION OF user_activity_log DEFAULT;
+CREATE TABLE admin_audit_log_default PARTITION OF admin_audit_log DEFAULT;
+
+-- Партиции за все месяцы с данными и на три месяца вперед (имена как у LogPartitionService)
+DO $$
+DECLARE
+    log_table TEXT;
+    month_start DATE;
+BEGIN
+    FOREACH log_table IN ARRAY ARRAY['user_activity_log', 'admin_audit_log'] LOOP
+        EXECUTE format('SELECT date_trunc(''month'', COALESCE(MIN(timestamp), now()))::date FROM %I',
+                log_table || '_legacy') INTO month_start;
+        WHILE month_start < date_trunc('month', now()) + INTERVAL '4 months' LOOP
+            EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                    log_table || '_p' || to_char(month_start, 'YYYYMM'), log_table,
+                    month_start, (month_start + INTERVAL '1 month')::date);
+            month_start := (month_start + INTERVAL '1 month')::date;
+        END LOOP;
+    END LOOP;
+END $$;
+
+-- Записи без времени уходят в DEFAULT с нулевой датой
+INSERT INTO user_activity_log (id, user_id, action, timestamp)
+SELECT id, user_id, action, COALESCE(timestamp, TIMESTAMP '1970-01-01') FROM user_activity_log_legacy;
+
+INSERT INTO admin_audit_log (id, admin_id, action, target_entity_id, timestamp)
+SELECT id, admin_id, action, target_entity_id, COALESCE(timestamp, TIMESTAMP '1970-01-01') FROM admin_audit_log_legacy;
+
+DROP TABLE user_activity_log_legacy;
+DROP TABLE admin_audit_log_legacy;
+
+CREATE INDEX idx_user_activity_log_timestamp ON user_activity_log(timestamp);
+CREATE INDEX idx_user_activity_log_user ON user_activity_log(user_id, timestamp);
+CREATE INDEX idx_admin_audit_log_timestamp ON admin_audit_log(timestamp);
+CREATE INDEX idx_admin_audit_log_admin ON admin_audit_log(admin_id, timestamp);
+
+COMMIT;
@@ -0,0 +1,9 @@
+-- Резервирование стендов для уже развернутых баз
+
+-- 1. Статус PENDING выставляется стенду на время рассмотрения заявки
+ALTER TYPE stand_status ADD VALUE IF NOT EXISTS 'PENDING';
+
+-- 2. Не более одного активного бронирования на стенд.
+--    Перед созданием индекса нужно отменить дублирующиеся PENDING/CONFIRMED заявки
+CREATE UNIQUE INDEX IF NOT EXISTS uq_bookings_active_stand ON bookings(exhibition_stand_id)
+   WHERE status IN ('PENDING', 'CONFIRMED');
@@ -0,0 +1,11 @@
+-- Хранилище отозванных JWT для уже развернутых баз
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+   id BIGSERIAL PRIMARY KEY,
+   token_hash VARCHAR(64) NOT NULL UNIQUE,
+   expires_at TIMESTAMP NOT NULL,
+   revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Опрос дельты другими узлами и очистка истекших записей
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
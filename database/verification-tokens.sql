@@ -0,0 +1,13 @@
+-- Токены подтверждения email для уже развернутых баз (раньше таблицу создавал Hibernate)
+CREATE TABLE IF NOT EXISTS email_verification_tokens (
+   id SERIAL PRIMARY KEY,
+   token VARCHAR(255) NOT NULL UNIQUE,
+   user_id BIGINT NOT NULL UNIQUE,
+   expiry_date TIMESTAMP NOT NULL,
+   used BOOLEAN NOT NULL DEFAULT FALSE,
+
+   FOREIGN KEY (user_id) REFERENCES "users"(id) ON DELETE CASCADE
+);
+
+-- Очистка истекших токенов и поиск пользователей для повторной рассылки
+CREATE INDEX IF NOT EXISTS idx_email_verification_tokens_expiry ON email_verification_tokens(expiry_date);
@@ -0,0 +1,133 @@
+package artishok.controllers.roles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import artishok.dto.StandSummaryDto;
+import artishok.entities.Booking;
+import artishok.entities.ExhibitionEvent;
+import artishok.entities.ExhibitionHallMap;
+import artishok.entities.ExhibitionStand;
+import artishok.entities.Gallery;
+import artishok.entities.User;
+import artishok.entities.enums.BookingStatus;
+import artishok.entities.enums.ExhibitionStatus;
+import artishok.entities.enums.GalleryStatus;
+import artishok.entities.enums.StandStatus;
+import artishok.entities.enums.StandType;
+import artishok.entities.enums.UserRole;
+
+/**
+ * Сборка ответов владельца галереи в Map. Граф сущностей заполнен полностью,
+ * поэтому convertBookingToDTO проходит всю цепочку стенд - карта - выставка - галерея.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GalleryOwnerControllerBenchmark {
+
+    private GalleryOwnerController controller;
+    private Booking booking;
+    private Gallery gallery;
+    private ExhibitionEvent exhibition;
+    private ExhibitionHallMap hallMap;
+    private ExhibitionStand stand;
+    private StandSummaryDto standSummary;
+
+    @Setup
+    public void setup() {
+        controller = new GalleryOwnerController();
+
+        User owner = new User("owner@artishok.ru", "hash", "Владелец Галереи", UserRole.GALLERY_OWNER);
+        owner.setId(1L);
+        User artist = new User("artist@artishok.ru", "hash", "Художник", UserRole.ARTIST);
+        artist.setId(2L);
+
+        gallery = new Gallery();
+        gallery.setId(10L);
+        gallery.setOwner(owner);
+        gallery.setName("Галерея");
+        gallery.setDescription("Описание галереи");
+        gallery.setAddress("Москва, ул. Тверская, 1");
+        gallery.setContactPhone("+7 900 000-00-00");
+        gallery.setContactEmail("gallery@artishok.ru");
+        gallery.setLogoUrl("https://cdn.artishok.ru/galleries/10/logo.png");
+        gallery.setStatus(GalleryStatus.APPROVED);
+        gallery.setCreatedAt(LocalDateTime.now());
+
+        exhibition = new ExhibitionEvent();
+        exhibition.setId(100L);
+        exhibition.setGallery(gallery);
+        exhibition.setTitle("Весенняя выставка");
+        exhibition.setDescription("Описание выставки");
+        exhibition.setStartDate(LocalDateTime.now());
+        exhibition.setEndDate(LocalDateTime.now().plusDays(30));
+        exhibition.setStatus(ExhibitionStatus.ACTIVE);
+
+        hallMap = new ExhibitionHallMap();
+        hallMap.setId(1000L);
+        hallMap.setName("Главный зал");
+        hallMap.setExhibitionEvent(exhibition);
+        hallMap.setMapImageUrl("https://cdn.artishok.ru/maps/1000.png");
+
+        stand = new ExhibitionStand();
+        stand.setId(10000L);
+        stand.setExhibitionHallMap(hallMap);
+        stand.setStandNumber("A-12");
+        stand.setPositionX(120);
+        stand.setPositionY(40);
+        stand.setWidth(200);
+        stand.setHeight(150);
+        stand.setType(StandType.WALL);
+        stand.setStatus(StandStatus.BOOKED);
+
+        booking = new Booking();
+        booking.setId(100000L);
+        booking.setExhibitionStand(stand);
+        booking.setArtist(artist);
+        booking.setBookingDate(LocalDateTime.now());
+        booking.setStatus(BookingStatus.CONFIRMED);
+
+        standSummary = new StandSummaryDto(10000L, "A-12", 120, 40, 200, 150, StandType.WALL, StandStatus.BOOKED,
+                1000L, "Главный зал", 100L, "Весенняя выставка");
+    }
+
+    @Benchmark
+    public Map<String, Object> convertBooking() {
+        return controller.convertBookingToDTO(booking);
+    }
+
+    @Benchmark
+    public Map<String, Object> convertGallery() {
+        return controller.convertGalleryToDTO(gallery);
+    }
+
+    @Benchmark
+    public Map<String, Object> convertExhibition() {
+        return controller.convertExhibitionToDTO(exhibition);
+    }
+
+    @Benchmark
+    public Map<String, Object> convertHallMap() {
+        return controller.convertHallMapToDTO(hallMap);
+    }
+
+    @Benchmark
+    public Map<String, Object> convertStand() {
+        return controller.convertStandToDTO(stand);
+    }
+
+    @Benchmark
+    public Map<String, Object> convertStandSummary() {
+        return controller.convertStandToDTO(standSummary);
+    }
+}
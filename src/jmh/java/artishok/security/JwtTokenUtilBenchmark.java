@@ -0,0 +1,52 @@
+package artishok.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import artishok.entities.User;
+import artishok.entities.enums.UserRole;
+
+/**
+ * Выпуск и проверка JWT. Вне HTTP-запроса кэш claims в атрибутах запроса не работает,
+ * поэтому validateToken каждый раз разбирает и проверяет подпись - худший случай фильтра.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenUtilBenchmark {
+
+    private JwtTokenUtil jwtTokenUtil;
+    private User user;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtTokenUtil = new JwtTokenUtil("artishok-secret-key-for-jwt-token-generation-2024", 86400000L);
+
+        user = new User("bench@artishok.ru", "hash", "Бенчмарк Пользователь", UserRole.ARTIST);
+        user.setId(42L);
+        userDetails = org.springframework.security.core.userdetails.User.withUsername(user.getEmail())
+                .password("hash").authorities("ROLE_ARTIST").build();
+
+        token = jwtTokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtTokenUtil.validateToken(token, userDetails);
+    }
+}
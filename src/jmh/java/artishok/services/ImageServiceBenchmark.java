@@ -0,0 +1,46 @@
+package artishok.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Имя объекта и валидация загружаемого изображения - CPU-часть uploadImage без обращения к хранилищу
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ImageServiceBenchmark {
+
+    private ImageService imageService;
+    private MockMultipartFile file;
+
+    @Setup
+    public void setup() {
+        imageService = new ImageService();
+        file = new MockMultipartFile("file", "Photo.JPEG", "image/jpeg", new byte[256 * 1024]);
+    }
+
+    @Benchmark
+    public String generateFileNameWithEntity() {
+        return imageService.generateFileName("Photo.JPEG", "artworks", 42L);
+    }
+
+    @Benchmark
+    public String generateFileNameWithoutEntity() {
+        return imageService.generateFileName("Photo.JPEG", "avatars", null);
+    }
+
+    @Benchmark
+    public MockMultipartFile validateImage() {
+        imageService.validateImage(file);
+        return file;
+    }
+}
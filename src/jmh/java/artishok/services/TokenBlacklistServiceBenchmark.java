@@ -0,0 +1,128 @@
+package artishok.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import artishok.entities.User;
+import artishok.entities.enums.UserRole;
+import artishok.security.JwtTokenUtil;
+import artishok.services.revocation.TokenRevocationStore;
+
+/**
+ * isTokenBlacklisted под конкурентной нагрузкой: проверка выполняется в фильтре на каждый
+ * запрос, поэтому важны и одиночная задержка, и масштабирование по потокам.
+ * Хранилище отзывов подменено картой в памяти, чтобы измерять только сам сервис.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenBlacklistServiceBenchmark {
+
+    private static final int TOKENS = 1024;
+
+    @Param({ "1000", "100000" })
+    public int revokedCount;
+
+    private TokenBlacklistService blacklistService;
+    private String[] revokedTokens;
+    private String[] validTokens;
+
+    @Setup
+    public void setup() {
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil("artishok-secret-key-for-jwt-token-generation-2024", 86400000L);
+        InMemoryRevocationStore store = new InMemoryRevocationStore();
+        blacklistService = new TokenBlacklistService(jwtTokenUtil, store, 100000, 1000000, 0.001, 120000);
+        blacklistService.loadRevocations();
+
+        revokedTokens = new String[TOKENS];
+        validTokens = new String[TOKENS];
+        for (int i = 0; i < revokedCount; i++) {
+            String token = jwtTokenUtil.generateToken(user(i));
+            blacklistService.blacklistToken(token);
+            if (i < TOKENS) {
+                revokedTokens[i] = token;
+            }
+        }
+        for (int i = 0; i < TOKENS; i++) {
+            validTokens[i] = jwtTokenUtil.generateToken(user(revokedCount + i));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean validTokenSingleThread() {
+        return blacklistService.isTokenBlacklisted(validTokens[next()]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean validTokenContended() {
+        return blacklistService.isTokenBlacklisted(validTokens[next()]);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean revokedTokenContended() {
+        return blacklistService.isTokenBlacklisted(revokedTokens[next()]);
+    }
+
+    private int next() {
+        return ThreadLocalRandom.current().nextInt(Math.min(TOKENS, revokedCount));
+    }
+
+    private static User user(long id) {
+        User user = new User("user" + id + "@artishok.ru", "hash", "Пользователь " + id, UserRole.ARTIST);
+        user.setId(id);
+        return user;
+    }
+
+    private static final class InMemoryRevocationStore implements TokenRevocationStore {
+        private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+
+        @Override
+        public void revoke(String tokenHash, LocalDateTime expiresAt) {
+            revoked.put(tokenHash, expiresAt);
+        }
+
+        @Override
+        public Optional<LocalDateTime> findExpiry(String tokenHash) {
+            return Optional.ofNullable(revoked.get(tokenHash));
+        }
+
+        @Override
+        public Map<String, LocalDateTime> findRevokedSince(LocalDateTime since) {
+            return Map.of();
+        }
+
+        @Override
+        public List<String> findActiveHashes() {
+            return new ArrayList<>(revoked.keySet());
+        }
+
+        @Override
+        public void remove(String tokenHash) {
+            revoked.remove(tokenHash);
+        }
+
+        @Override
+        public int deleteExpired() {
+            return 0;
+        }
+    }
+}
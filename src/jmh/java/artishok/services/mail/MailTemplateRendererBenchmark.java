@@ -0,0 +1,46 @@
+package artishok.services.mail;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Отрисовка письма подтверждения из разобранного шаблона - стоимость одного письма массовой рассылки
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MailTemplateRendererBenchmark {
+
+    private MailTemplateRenderer renderer;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setup() {
+        renderer = new MailTemplateRenderer();
+        renderer.precompile();
+        variables = Map.of(
+                "userName", "Анна Иванова",
+                "verificationUrl", "http://localhost:8080/api/auth/verify-email?token=3f2b9c1e-7a4d-4e1b-9c55-0d6f8a2e4b71",
+                "expirationHours", 24);
+    }
+
+    @Benchmark
+    public String renderVerification() {
+        return renderer.render(EmailTemplate.VERIFICATION, variables);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String renderVerificationConcurrent() {
+        return renderer.render(EmailTemplate.VERIFICATION, variables);
+    }
+}
@@ -0,0 +1,90 @@
+package artishok.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+/**
+ * Потоковая запись строк в COPY ... FROM STDIN (текстовый формат): без промежуточных
+ * файлов и без накопления строк в памяти
+ */
+public class CopyWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final PGCopyOutputStream copyStream;
+    private final Writer writer;
+    private boolean rowStarted;
+    private boolean closed;
+    private long rows;
+
+    public CopyWriter(Connection connection, String table, String columns) throws SQLException {
+        this.copyStream = new PGCopyOutputStream(connection.unwrap(PGConnection.class),
+                "COPY " + table + " (" + columns + ") FROM STDIN", BUFFER_SIZE);
+        this.writer = new BufferedWriter(new OutputStreamWriter(copyStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public CopyWriter field(long value) throws IOException {
+        separator();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    public CopyWriter field(Object value) throws IOException {
+        separator();
+        if (value == null) {
+            writer.write("\\N");
+            return this;
+        }
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> writer.write("\\\\");
+                case '\t' -> writer.write("\\t");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                default -> writer.write(c);
+            }
+        }
+        return this;
+    }
+
+    public void endRow() throws IOException {
+        writer.write('\n');
+        rowStarted = false;
+        rows++;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        writer.flush();
+        // endCopy фиксирует поток COPY; без него сервер отменит загрузку
+        try {
+            copyStream.endCopy();
+        } catch (SQLException e) {
+            throw new IOException("Ошибка завершения COPY: " + e.getMessage(), e);
+        }
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            writer.write('\t');
+        }
+        rowStarted = true;
+    }
+}
@@ -0,0 +1,108 @@
+package artishok.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SMTP-заглушка в духе MailHog: принимает любые письма и отбрасывает их. Задержка ответа на DATA
+ * имитирует медленный релей - регистрация не должна от нее зависеть, ее разгребает MailDispatcher.
+ */
+public class FakeSmtpServer implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final long latencyMillis;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fake-smtp-session");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong sessions = new AtomicLong();
+
+    public FakeSmtpServer(long latencyMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0, 100, InetAddress.getLoopbackAddress());
+        this.latencyMillis = latencyMillis;
+        Thread acceptor = new Thread(this::acceptLoop, "fake-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getMessageCount() {
+        return messages.get();
+    }
+
+    public long getSessionCount() {
+        return sessions.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                // Сервер закрыт
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        sessions.incrementAndGet();
+        try (socket;
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 fake-smtp ready");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line;
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 fake-smtp");
+                    case "DATA" -> {
+                        reply(out, "354 end data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Тело письма не хранится
+                        }
+                        if (latencyMillis > 0) {
+                            Thread.sleep(latencyMillis);
+                        }
+                        messages.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // Клиент закрыл соединение
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
@@ -0,0 +1,76 @@
+package artishok.loadtest;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import artishok.services.storage.SizeLimitedInputStream;
+import artishok.services.storage.StorageService;
+
+/**
+ * Хранилище файлов в памяти вместо MinIO: нагрузочный прогон не должен зависеть от S3
+ * и не должен мерить его задержки
+ */
+public class InMemoryStorageService implements StorageService {
+    private static final String PUBLIC_URL = "http://loadtest.local/artishok-images/";
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+    @Override
+    public String uploadFile(MultipartFile file, String objectName, String contentType) {
+        try {
+            objects.put(objectName, file.getBytes());
+            return objectName;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String uploadStream(InputStream stream, long size, String objectName, String contentType) {
+        try {
+            objects.put(objectName, stream.readAllBytes());
+            return objectName;
+        } catch (SizeLimitedInputStream.LimitExceededException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String uploadBytes(byte[] data, String objectName, String contentType) {
+        objects.put(objectName, data.clone());
+        return objectName;
+    }
+
+    @Override
+    public String getFileUrl(String objectName) {
+        return PUBLIC_URL + objectName;
+    }
+
+    @Override
+    public void deleteFile(String objectName) {
+        objects.remove(objectName);
+    }
+
+    @Override
+    public InputStream downloadFile(String objectName) {
+        byte[] data = objects.get(objectName);
+        if (data == null) {
+            throw new UncheckedIOException(new FileNotFoundException(objectName));
+        }
+        return new ByteArrayInputStream(data);
+    }
+
+    @Override
+    public boolean fileExists(String objectName) {
+        return objects.containsKey(objectName);
+    }
+}
@@ -0,0 +1,47 @@
+package artishok.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Задержки одного виртуального пользователя по эндпоинтам. Принадлежит одному потоку,
+ * поэтому запись без синхронизации; объединяются после окончания прогона.
+ */
+public class LatencyRecorder {
+
+    static final class Samples {
+        long[] nanos = new long[1024];
+        int size;
+        long errors;
+
+        void add(long value, boolean ok) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + other.size));
+            }
+            System.arraycopy(other.nanos, 0, nanos, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+    }
+
+    private final Map<String, Samples> byEndpoint = new LinkedHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean ok) {
+        byEndpoint.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, ok);
+    }
+
+    Map<String, Samples> samples() {
+        return byEndpoint;
+    }
+}
@@ -0,0 +1,19 @@
+package artishok.loadtest;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import artishok.services.storage.StorageService;
+
+/**
+ * Подмена бинов приложения для нагрузочного прогона. Имя бина совпадает с MinioStorageService,
+ * поэтому при разрешенном переопределении определений MinIO не создается вовсе.
+ */
+@Configuration
+public class LoadTestConfiguration {
+
+    @Bean(name = "minioStorageService")
+    public StorageService minioStorageService() {
+        return new InMemoryStorageService();
+    }
+}
@@ -0,0 +1,151 @@
+package artishok.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Масштабируемые тестовые данные по образцу database/test_data.sql: на единицу масштаба
+ * 20 одобренных галерей с владельцами, 200 художников, по 2 активные выставки на галерею
+ * с картой зала и standsPerHall свободными стендами. Данные строятся set-based вставками
+ * через generate_series, поэтому объем почти не влияет на время подготовки.
+ */
+public class LoadTestDataGenerator {
+    public static final String PASSWORD = "loadtest-password";
+
+    private static final int GALLERIES_PER_SCALE = 20;
+    private static final int ARTISTS_PER_SCALE = 200;
+    private static final int EXHIBITIONS_PER_GALLERY = 2;
+
+    public record SeededData(int artists, Map<Long, String> ownerByExhibition) {
+
+        public static String artistEmail(int n) {
+            return "artist" + n + "@load.test";
+        }
+    }
+
+    private final int scale;
+    private final int standsPerHall;
+
+    public LoadTestDataGenerator(int scale, int standsPerHall) {
+        this.scale = scale;
+        this.standsPerHall = standsPerHall;
+    }
+
+    public SeededData generate(Connection connection) throws SQLException {
+        long started = System.nanoTime();
+        int galleries = GALLERIES_PER_SCALE * scale;
+        int artists = ARTISTS_PER_SCALE * scale;
+        // Один хэш на всех: стоимость BCrypt при входе та же, а генерация не тратит минуты на хэши
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        connection.setAutoCommit(false);
+        execute(connection, """
+                INSERT INTO users (email, password_hash, full_name, role, phone_number, bio, is_active, registration_date)
+                SELECT 'owner' || n || '@load.test', ?, 'Владелец ' || n, 'GALLERY_OWNER', '+7916' || lpad(n::text, 7, '0'),
+                       'Владелец галереи ' || n, true, CURRENT_TIMESTAMP - (random() * INTERVAL '365 days')
+                FROM generate_series(1, ?) n
+                """, passwordHash, galleries);
+        execute(connection, """
+                INSERT INTO users (email, password_hash, full_name, role, phone_number, bio, is_active, registration_date)
+                SELECT 'artist' || n || '@load.test', ?, 'Художник ' || n, 'ARTIST', '+7926' || lpad(n::text, 7, '0'),
+                       'Художник-участник ' || n, true, CURRENT_TIMESTAMP - (random() * INTERVAL '365 days')
+                FROM generate_series(1, ?) n
+                """, passwordHash, artists);
+        execute(connection, """
+                INSERT INTO gallery (name, description, address, contact_phone, contact_email, logo_url, status, admin_comment)
+                SELECT 'Галерея ' || n, 'Галерея современного искусства ' || n, 'ул. Тверская, д. ' || n || ', Москва',
+                       '+7495' || lpad(n::text, 7, '0'), 'gallery' || n || '@load.test',
+                       'http://loadtest.local/artishok-images/logos/gallery' || n || '.jpg', 'APPROVED', 'Проверена'
+                FROM generate_series(1, ?) n
+                """, galleries);
+        execute(connection, """
+                INSERT INTO gallery_ownership (gallery_id, owner_id, is_primary)
+                SELECT g.id, u.id, TRUE
+                FROM gallery g
+                JOIN users u ON u.email = replace(g.contact_email, 'gallery', 'owner')
+                """);
+        execute(connection, """
+                INSERT INTO exhibition_event (gallery_id, title, description, start_date, end_date, status)
+                SELECT g.id, 'Выставка ' || g.id || '-' || n, 'Сезонная выставка галереи ' || g.id,
+                       CURRENT_TIMESTAMP - INTERVAL '1 day', CURRENT_TIMESTAMP + INTERVAL '30 days', 'ACTIVE'
+                FROM gallery g, generate_series(1, ?) n
+                """, EXHIBITIONS_PER_GALLERY);
+        execute(connection, """
+                INSERT INTO exhibition_hall_map (exhibition_event_id, map_image_url, name)
+                SELECT e.id, 'http://loadtest.local/artishok-images/maps/hall' || e.id || '.jpg', 'Главный зал'
+                FROM exhibition_event e
+                """);
+        execute(connection, """
+                INSERT INTO exhibition_stand (exhibition_hall_map_id, stand_number, position_x, position_y, width, height, type, status)
+                SELECT m.id, 'S-' || n, (n % 20) * 100, (n / 20) * 100, 80, 60,
+                       (ARRAY['WALL', 'BOOTH', 'OPEN_SPACE'])[n % 3 + 1]::stand_type, 'AVAILABLE'
+                FROM exhibition_hall_map m, generate_series(1, ?) n
+                """, standsPerHall);
+        Map<Long, String> ownerByExhibition = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT e.id, u.email
+                FROM exhibition_event e
+                JOIN gallery_ownership o ON o.gallery_id = e.gallery_id
+                JOIN users u ON u.id = o.owner_id
+                """); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ownerByExhibition.put(rs.getLong(1), rs.getString(2));
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        execute(connection, "ANALYZE");
+
+        System.out.printf("Load test: данные сгенерированы за %.1f с: галерей %d, художников %d, выставок %d, стендов %d%n",
+                (System.nanoTime() - started) / 1e9, galleries, artists, ownerByExhibition.size(),
+                (long) ownerByExhibition.size() * standsPerHall);
+        return new SeededData(artists, ownerByExhibition);
+    }
+
+    /**
+     * Описание уже заполненной базы: художники artistN@load.test и владельцы активных выставок
+     */
+    public static SeededData describe(Connection connection) throws SQLException {
+        int artists;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT count(*) FROM users WHERE role = 'ARTIST' AND email LIKE 'artist%@load.test'");
+                ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            artists = rs.getInt(1);
+        }
+
+        Map<Long, String> ownerByExhibition = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT e.id, u.email
+                FROM exhibition_event e
+                JOIN gallery_ownership o ON o.gallery_id = e.gallery_id AND o.is_primary
+                JOIN users u ON u.id = o.owner_id
+                WHERE e.status = 'ACTIVE' AND e.end_date > CURRENT_TIMESTAMP
+                """); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ownerByExhibition.put(rs.getLong(1), rs.getString(2));
+            }
+        }
+        if (artists == 0 || ownerByExhibition.isEmpty()) {
+            throw new IllegalStateException("В базе нет художников artistN@load.test или активных выставок");
+        }
+        System.out.println("Load test: готовая база, художников " + artists + ", активных выставок "
+                + ownerByExhibition.size());
+        return new SeededData(artists, ownerByExhibition);
+    }
+
+    private static void execute(Connection connection, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            ps.execute();
+        }
+    }
+}
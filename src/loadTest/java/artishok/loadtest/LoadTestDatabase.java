@@ -0,0 +1,100 @@
+package artishok.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.stream.Collectors;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * База для нагрузочного прогона: встроенный Postgres (по умолчанию) или внешний по loadtest.db.url.
+ * Схема создается теми же скриптами из database/, что и при развертывании.
+ */
+public class LoadTestDatabase implements AutoCloseable {
+    // Порядок как при развертывании: создание схемы, затем переход на BIGINT и VARCHAR-статусы
+    private static final String[] SCHEMA_SCRIPTS = { "create.sql", "alter_bigint.sql", "enum-alter.sql" };
+
+    private final EmbeddedPostgres embedded;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private LoadTestDatabase(EmbeddedPostgres embedded, String url, String username, String password) {
+        this.embedded = embedded;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    public static LoadTestDatabase start(LoadTestSettings settings) throws IOException {
+        if (!settings.embeddedDatabase()) {
+            return external(settings.dbUrl(), settings.dbUsername(), settings.dbPassword());
+        }
+        EmbeddedPostgres embedded = EmbeddedPostgres.builder().start();
+        String url = embedded.getJdbcUrl("postgres", "postgres");
+        System.out.println("Load test: встроенный Postgres " + url);
+        return new LoadTestDatabase(embedded, url, "postgres", "postgres");
+    }
+
+    public static LoadTestDatabase external(String url, String username, String password) {
+        System.out.println("Load test: внешняя БД " + url);
+        return new LoadTestDatabase(null, url, username, password);
+    }
+
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    /**
+     * Создает схему в пустой базе. Во внешней базе с уже созданными таблицами прогон не начинается:
+     * генератор рассчитывает на пустые таблицы, а чужие данные портить нельзя.
+     */
+    public void createSchema(Path databaseDir) throws IOException, SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT to_regclass('public.users') IS NOT NULL")) {
+                rs.next();
+                if (rs.getBoolean(1)) {
+                    throw new IllegalStateException("В базе " + url + " уже есть схема, нужна пустая база");
+                }
+            }
+            for (String script : SCHEMA_SCRIPTS) {
+                statement.execute(readScript(databaseDir.resolve(script)));
+            }
+        }
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+
+    /**
+     * Скрипт целиком одним запросом; метакоманды psql (\c и т.п.) JDBC не понимает и отбрасываются
+     */
+    private static String readScript(Path script) throws IOException {
+        return Files.readAllLines(script, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.stripLeading().startsWith("\\"))
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,90 @@
+package artishok.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import artishok.loadtest.LatencyRecorder.Samples;
+
+/**
+ * Итог прогона: число запросов, ошибки (ответ 4xx/5xx или сбой соединения), пропускная
+ * способность и перцентили задержки по каждому эндпоинту
+ */
+public class LoadTestReport {
+
+    public record EndpointResult(String endpoint, long count, long errors, double throughput,
+            double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    private final List<EndpointResult> results;
+    private final int durationSeconds;
+
+    private LoadTestReport(List<EndpointResult> results, int durationSeconds) {
+        this.results = results;
+        this.durationSeconds = durationSeconds;
+    }
+
+    public static LoadTestReport of(List<LatencyRecorder> recorders, int durationSeconds) {
+        Map<String, Samples> merged = new TreeMap<>();
+        for (LatencyRecorder recorder : recorders) {
+            recorder.samples().forEach((endpoint, samples) ->
+                    merged.computeIfAbsent(endpoint, key -> new Samples()).addAll(samples));
+        }
+
+        List<EndpointResult> results = new ArrayList<>();
+        merged.forEach((endpoint, samples) -> {
+            long[] sorted = Arrays.copyOf(samples.nanos, samples.size);
+            Arrays.sort(sorted);
+            results.add(new EndpointResult(endpoint, sorted.length, samples.errors,
+                    (double) sorted.length / durationSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0)));
+        });
+        return new LoadTestReport(results, durationSeconds);
+    }
+
+    public void print() {
+        System.out.println();
+        System.out.printf("Load test: окно измерения %d с%n", durationSeconds);
+        System.out.printf("%-52s %9s %7s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "req/s", "p50 ms",
+                "p99 ms", "max ms");
+        long total = 0;
+        for (EndpointResult r : results) {
+            total += r.count();
+            System.out.printf("%-52s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", r.endpoint(), r.count(), r.errors(),
+                    r.throughput(), r.p50Millis(), r.p99Millis(), r.maxMillis());
+        }
+        System.out.printf("%-52s %9d %7s %9.1f%n", "TOTAL", total, "", (double) total / durationSeconds);
+    }
+
+    public Path writeCsv(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve("summary.csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,count,errors,throughput_rps,p50_ms,p99_ms,max_ms");
+        for (EndpointResult r : results) {
+            lines.add(String.format(Locale.ROOT, "\"%s\",%d,%d,%.2f,%.3f,%.3f,%.3f", r.endpoint(), r.count(),
+                    r.errors(), r.throughput(), r.p50Millis(), r.p99Millis(), r.maxMillis()));
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    public List<EndpointResult> getResults() {
+        return results;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
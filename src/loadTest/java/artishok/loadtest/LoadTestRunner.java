@@ -0,0 +1,109 @@
+package artishok.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import artishok.ArtishokApplication;
+import artishok.loadtest.LoadTestDataGenerator.SeededData;
+
+/**
+ * Сквозной нагрузочный прогон REST API: поднимает Postgres со схемой из database/,
+ * заполняет его генератором, запускает ArtishokApplication на случайном порту с хранилищем
+ * файлов в памяти и SMTP-заглушкой и гоняет смесь сценариев художников и владельцев галерей.
+ *
+ * Запуск: ./gradlew loadTest -Ploadtest.users=50 -Ploadtest.duration-seconds=300
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        try (LoadTestDatabase database = LoadTestDatabase.start(settings)) {
+            SeededData data;
+            try (Connection connection = database.connect()) {
+                if (settings.seedDatabase()) {
+                    database.createSchema(Path.of("database"));
+                    data = new LoadTestDataGenerator(settings.scale(), settings.standsPerHall()).generate(connection);
+                } else {
+                    data = LoadTestDataGenerator.describe(connection);
+                }
+            }
+
+            try (FakeSmtpServer smtp = new FakeSmtpServer(settings.smtpLatencyMillis());
+                    ConfigurableApplicationContext context = startApplication(database, smtp)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                LoadTestReport report = run(settings, data, "http://localhost:" + port,
+                        context.getBean(ObjectMapper.class));
+                report.print();
+                System.out.printf("Load test: SMTP-заглушка приняла %d писем за %d соединений%n",
+                        smtp.getMessageCount(), smtp.getSessionCount());
+                System.out.println("Load test: отчет " + report.writeCsv(Path.of(settings.reportDir())));
+            }
+        }
+    }
+
+    static ConfigurableApplicationContext startApplication(LoadTestDatabase database, FakeSmtpServer smtp) {
+        return new SpringApplicationBuilder(ArtishokApplication.class, LoadTestConfiguration.class)
+                .properties(Map.of(
+                        "spring.mail.host", "localhost",
+                        "spring.mail.port", String.valueOf(smtp.getPort()),
+                        "spring.datasource.url", database.getUrl(),
+                        "spring.datasource.username", database.getUsername(),
+                        "spring.datasource.password", database.getPassword(),
+                        "spring.main.allow-bean-definition-overriding", "true",
+                        "server.port", "0",
+                        "app.audit-log.spool-path", "build/loadtest/audit-spool.log",
+                        "logging.level.org.springframework.mail", "INFO",
+                        "logging.level.com.sun.mail", "INFO"))
+                .run();
+    }
+
+    private static LoadTestReport run(LoadTestSettings settings, SeededData data, String baseUrl,
+            ObjectMapper objectMapper) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Map<String, String> ownerTokens = new ConcurrentHashMap<>();
+
+        long now = System.nanoTime();
+        long measureFrom = now + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+
+        System.out.printf("Load test: %d виртуальных пользователей, прогрев %d с, измерение %d с, смесь %s%n",
+                settings.virtualUsers(), settings.warmupSeconds(), settings.durationSeconds(), settings.mix());
+
+        List<Scenario> scenarios = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(settings.virtualUsers());
+        for (int i = 0; i < settings.virtualUsers(); i++) {
+            Scenario scenario = new Scenario(client, objectMapper, baseUrl, settings, data, ownerTokens,
+                    measureFrom, deadline);
+            scenarios.add(scenario);
+            executor.execute(scenario);
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(settings.warmupSeconds() + settings.durationSeconds() + 60L, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        scenarios.forEach(scenario -> recorders.add(scenario.getRecorder()));
+        return LoadTestReport.of(recorders, settings.durationSeconds());
+    }
+}
@@ -0,0 +1,81 @@
+package artishok.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона из системных свойств loadtest.* (Gradle пробрасывает -Ploadtest.*)
+ */
+public record LoadTestSettings(
+        String dbUrl,
+        String dbUsername,
+        String dbPassword,
+        String seed,
+        int scale,
+        int standsPerHall,
+        int virtualUsers,
+        int warmupSeconds,
+        int durationSeconds,
+        int sessionRequests,
+        long thinkMillis,
+        long smtpLatencyMillis,
+        Map<String, Integer> mix,
+        String reportDir,
+        int contentionUsers,
+        int contentionStands) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("loadtest.db.url", ""),
+                System.getProperty("loadtest.db.username", "postgres"),
+                System.getProperty("loadtest.db.password", "postgres"),
+                System.getProperty("loadtest.seed", "basic"),
+                intProperty("loadtest.scale", 1),
+                intProperty("loadtest.stands-per-hall", 250),
+                intProperty("loadtest.users", 20),
+                intProperty("loadtest.warmup-seconds", 20),
+                intProperty("loadtest.duration-seconds", 120),
+                intProperty("loadtest.session-requests", 20),
+                intProperty("loadtest.think-ms", 0),
+                intProperty("loadtest.smtp-latency-ms", 200),
+                parseMix(System.getProperty("loadtest.mix", "browse:40,stands:40,book:20,register:2")),
+                System.getProperty("loadtest.report-dir", "build/reports/loadtest"),
+                intProperty("loadtest.contention.users", 500),
+                intProperty("loadtest.contention.stands", 50));
+    }
+
+    public boolean embeddedDatabase() {
+        return dbUrl.isBlank();
+    }
+
+    /**
+     * none - база уже заполнена (например, generatePerfData), схема и данные не создаются
+     */
+    public boolean seedDatabase() {
+        return !"none".equalsIgnoreCase(seed);
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Формат: browse:40,stands:40,book:20,register:2 - веса операций внутри сессии после входа
+     */
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Некорректный элемент loadtest.mix: " + part);
+            }
+            String operation = kv[0].trim();
+            if (!Scenario.OPERATIONS.contains(operation)) {
+                throw new IllegalArgumentException("Неизвестная операция в loadtest.mix: " + operation);
+            }
+            mix.put(operation, Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,225 @@
+package artishok.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import artishok.loadtest.LoadTestDataGenerator.SeededData;
+
+/**
+ * Виртуальный пользователь-художник (закрытая модель нагрузки): вход, затем sessionRequests
+ * операций по весам loadtest.mix, затем новый вход под другим художником.
+ * browse - список галерей и активных выставок; stands - свободные стенды выставки;
+ * book - выбор свободного стенда, бронирование и подтверждение заявки владельцем галереи;
+ * register - регистрация нового художника (письмо подтверждения уходит через очередь).
+ */
+public class Scenario implements Runnable {
+    public static final Set<String> OPERATIONS = Set.of("browse", "stands", "book", "register");
+
+    private static final String LOGIN = "POST /api/auth/login";
+    private static final String GALLERIES = "GET /galleries";
+    private static final String EXHIBITIONS = "GET /artist/available-exhibitions";
+    private static final String STANDS = "GET /artist/exhibitions/{id}/available-stands";
+    private static final String BOOK = "POST /artist/bookings";
+    private static final String CONFIRM = "PUT /gallery-owner/bookings/{id}/confirm";
+    private static final String REGISTER = "POST /api/auth/register";
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final LoadTestSettings settings;
+    private final SeededData data;
+    private final List<Long> exhibitionIds;
+    private final Map<String, String> ownerTokens;
+    private final long measureFrom;
+    private final long deadline;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    public Scenario(HttpClient client, ObjectMapper objectMapper, String baseUrl, LoadTestSettings settings,
+            SeededData data, Map<String, String> ownerTokens, long measureFrom, long deadline) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.data = data;
+        this.exhibitionIds = new ArrayList<>(data.ownerByExhibition().keySet());
+        this.ownerTokens = ownerTokens;
+        this.measureFrom = measureFrom;
+        this.deadline = deadline;
+    }
+
+    public LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    @Override
+    public void run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            String token = login(SeededData.artistEmail(random.nextInt(1, data.artists() + 1)));
+            if (token == null) {
+                think(100);
+                continue;
+            }
+            for (int i = 0; i < settings.sessionRequests() && System.nanoTime() < deadline; i++) {
+                switch (pickOperation(random)) {
+                    case "browse" -> browse(token);
+                    case "stands" -> availableStands(token, randomExhibition(random));
+                    case "book" -> bookAndConfirm(token, randomExhibition(random), random);
+                    case "register" -> register();
+                    default -> throw new IllegalStateException();
+                }
+                think(settings.thinkMillis());
+            }
+        }
+    }
+
+    private String login(String email) {
+        JsonNode body = send(LOGIN, post("/api/auth/login", null,
+                Map.of("email", email, "password", LoadTestDataGenerator.PASSWORD)));
+        return body != null && body.hasNonNull("token") ? body.get("token").asText() : null;
+    }
+
+    private void register() {
+        String email = "new-" + UUID.randomUUID() + "@load.test";
+        send(REGISTER, post("/api/auth/register", null, Map.of("email", email,
+                "password", LoadTestDataGenerator.PASSWORD, "fullName", "Новый художник", "role", "ARTIST")));
+    }
+
+    private void browse(String token) {
+        send(GALLERIES, get("/galleries", token));
+        send(EXHIBITIONS, get("/artist/available-exhibitions", token));
+    }
+
+    private JsonNode availableStands(String token, long exhibitionId) {
+        return send(STANDS, get("/artist/exhibitions/" + exhibitionId + "/available-stands", token));
+    }
+
+    private void bookAndConfirm(String token, long exhibitionId, ThreadLocalRandom random) {
+        JsonNode standsBody = availableStands(token, exhibitionId);
+        if (standsBody == null || !standsBody.path("stands").isArray() || standsBody.path("stands").isEmpty()) {
+            return;
+        }
+        JsonNode stands = standsBody.get("stands");
+        long standId = stands.get(random.nextInt(stands.size())).path("id").asLong();
+
+        JsonNode booked = send(BOOK, post("/artist/bookings", token, Map.of("exhibitionStandId", standId)));
+        if (booked == null || !booked.path("booking").hasNonNull("id")) {
+            return;
+        }
+        long bookingId = booked.path("booking").path("id").asLong();
+
+        String ownerEmail = data.ownerByExhibition().get(exhibitionId);
+        String ownerToken = ownerTokens.get(ownerEmail);
+        if (ownerToken == null) {
+            ownerToken = login(ownerEmail);
+            if (ownerToken == null) {
+                return;
+            }
+            ownerTokens.put(ownerEmail, ownerToken);
+        }
+        send(CONFIRM, HttpRequest.newBuilder(uri("/gallery-owner/bookings/" + bookingId + "/confirm"))
+                .header("Authorization", "Bearer " + ownerToken)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .PUT(HttpRequest.BodyPublishers.ofString("{}"))
+                .build());
+    }
+
+    /**
+     * Выполняет запрос и учитывает задержку, если запрос начат после прогрева.
+     * Ошибкой считается ответ 4xx/5xx (в т.ч. проигранная гонка за стенд) и сбой соединения.
+     */
+    private JsonNode send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() < 400;
+            record(endpoint, start, ok);
+            if (!ok || response.body().isEmpty()) {
+                return null;
+            }
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            record(endpoint, start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void record(String endpoint, long start, boolean ok) {
+        if (start >= measureFrom) {
+            recorder.record(endpoint, System.nanoTime() - start, ok);
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, Map<String, Object> body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        try {
+            return builder.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private String pickOperation(ThreadLocalRandom random) {
+        int total = 0;
+        for (int weight : settings.mix().values()) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : settings.mix().entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Пустой loadtest.mix");
+    }
+
+    private long randomExhibition(ThreadLocalRandom random) {
+        return exhibitionIds.get(random.nextInt(exhibitionIds.size()));
+    }
+
+    private static void think(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
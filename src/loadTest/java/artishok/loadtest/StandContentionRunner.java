@@ -0,0 +1,263 @@
+package artishok.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import artishok.loadtest.LoadTestDataGenerator.SeededData;
+
+/**
+ * Гонка за стенды одной выставки: loadtest.contention.users художников входят заранее и по общему
+ * сигналу одновременно бронируют loadtest.contention.stands стендов (художник i - стенд i % stands).
+ * Проверяется, что на каждый стенд пришелся ровно один успешный ответ и ровно одна бронь
+ * PENDING/CONFIRMED в БД, а каждый проигравший получил 4xx, а не 5xx или обрыв соединения.
+ *
+ * Запуск: ./gradlew loadTestContention -Ploadtest.contention.users=500 -Ploadtest.contention.stands=50
+ */
+public class StandContentionRunner {
+    private static final String BOOK = "POST /artist/bookings (contention)";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        if (!settings.seedDatabase()) {
+            throw new IllegalStateException("Гонке за стенды нужна пустая база: loadtest.seed=none не поддерживается");
+        }
+        int users = settings.contentionUsers();
+        int scale = Math.max(1, (users + 199) / 200);
+
+        try (LoadTestDatabase database = LoadTestDatabase.start(settings)) {
+            long exhibitionId;
+            List<Long> standIds;
+            try (Connection connection = database.connect()) {
+                database.createSchema(Path.of("database"));
+                SeededData data = new LoadTestDataGenerator(scale, settings.contentionStands()).generate(connection);
+                exhibitionId = Collections.min(data.ownerByExhibition().keySet());
+                standIds = standIds(connection, exhibitionId);
+            }
+
+            try (FakeSmtpServer smtp = new FakeSmtpServer(settings.smtpLatencyMillis());
+                    ConfigurableApplicationContext context = LoadTestRunner.startApplication(database, smtp)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                new StandContentionRunner("http://localhost:" + port, context.getBean(ObjectMapper.class))
+                        .run(database, settings, exhibitionId, standIds);
+            }
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+
+    private StandContentionRunner(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+    }
+
+    private void run(LoadTestDatabase database, LoadTestSettings settings, long exhibitionId, List<Long> standIds)
+            throws InterruptedException, SQLException, IOException {
+        int users = settings.contentionUsers();
+        System.out.printf("Load test: гонка за стенды, %d художников на %d стендов выставки %d%n", users,
+                standIds.size(), exhibitionId);
+
+        Map<Long, AtomicInteger> winsByStand = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<LatencyRecorder> recorders = Collections.synchronizedList(new ArrayList<>());
+
+        CountDownLatch ready = new CountDownLatch(users);
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        for (int i = 0; i < users; i++) {
+            String email = SeededData.artistEmail(i + 1);
+            long standId = standIds.get(i % standIds.size());
+            executor.execute(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                recorders.add(recorder);
+                String token = login(email);
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (token == null) {
+                    failed.incrementAndGet();
+                    return;
+                }
+                int status = book(token, standId, recorder);
+                if (status >= 200 && status < 300) {
+                    winsByStand.computeIfAbsent(standId, id -> new AtomicInteger()).incrementAndGet();
+                } else if (status >= 400 && status < 500) {
+                    rejected.incrementAndGet();
+                } else {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+
+        ready.await();
+        long started = System.nanoTime();
+        go.countDown();
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Гонка за стенды не завершилась за 5 минут");
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        LoadTestReport report = LoadTestReport.of(recorders, Math.max(1, (int) Math.ceil(elapsedSeconds)));
+        report.print();
+        System.out.printf("Load test: %d бронирований за %.2f с, %.1f запросов/с; успешных %d, отказов 4xx %d, ошибок %d%n",
+                users, elapsedSeconds, users / elapsedSeconds, total(winsByStand), rejected.get(), failed.get());
+        System.out.println("Load test: отчет " + report.writeCsv(Path.of(settings.reportDir(), "contention")));
+
+        List<String> violations = new ArrayList<>();
+        int contested = Math.min(users, standIds.size());
+        if (failed.get() > 0) {
+            violations.add(failed.get() + " запросов завершились 5xx, сбоем соединения или неудачным входом");
+        }
+        if (rejected.get() != users - contested) {
+            violations.add("отказов 4xx " + rejected.get() + ", ожидалось " + (users - contested));
+        }
+        winsByStand.forEach((standId, wins) -> {
+            if (wins.get() != 1) {
+                violations.add("стенд " + standId + ": успешных ответов " + wins.get());
+            }
+        });
+        Map<Long, Integer> activeByStand = activeBookings(database, exhibitionId);
+        for (int i = 0; i < standIds.size(); i++) {
+            long standId = standIds.get(i);
+            int expected = i < contested ? 1 : 0;
+            int actual = activeByStand.getOrDefault(standId, 0);
+            if (actual != expected) {
+                violations.add("стенд " + standId + ": активных броней в БД " + actual + ", ожидалось " + expected);
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            violations.forEach(violation -> System.err.println("Load test: " + violation));
+            throw new IllegalStateException("Гонка за стенды: нарушений " + violations.size());
+        }
+        System.out.println("Load test: на каждом из " + contested + " стендов ровно одна активная бронь");
+    }
+
+    private String login(String email) {
+        try {
+            HttpResponse<String> response = client.send(json("/api/auth/login", null,
+                    Map.of("email", email, "password", LoadTestDataGenerator.PASSWORD)),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                return null;
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            return body.hasNonNull("token") ? body.get("token").asText() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Код ответа на бронирование или -1 при сбое соединения
+     */
+    private int book(String token, long standId, LatencyRecorder recorder) {
+        long start = System.nanoTime();
+        try {
+            int status = client.send(json("/artist/bookings", token, Map.of("exhibitionStandId", standId)),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+            recorder.record(BOOK, System.nanoTime() - start, status < 500);
+            return status;
+        } catch (IOException e) {
+            recorder.record(BOOK, System.nanoTime() - start, false);
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private HttpRequest json(String path, String token, Map<String, Object> body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+    }
+
+    private static List<Long> standIds(Connection connection, long exhibitionId) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement("""
+                SELECT s.id
+                FROM exhibition_stand s
+                JOIN exhibition_hall_map m ON m.id = s.exhibition_hall_map_id
+                WHERE m.exhibition_event_id = ?
+                ORDER BY s.id
+                """)) {
+            ps.setLong(1, exhibitionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Map<Long, Integer> activeBookings(LoadTestDatabase database, long exhibitionId)
+            throws SQLException {
+        Map<Long, Integer> counts = new HashMap<>();
+        try (Connection connection = database.connect(); PreparedStatement ps = connection.prepareStatement("""
+                SELECT b.exhibition_stand_id, count(*)
+                FROM bookings b
+                JOIN exhibition_stand s ON s.id = b.exhibition_stand_id
+                JOIN exhibition_hall_map m ON m.id = s.exhibition_hall_map_id
+                WHERE m.exhibition_event_id = ? AND b.status IN ('PENDING', 'CONFIRMED')
+                GROUP BY b.exhibition_stand_id
+                """)) {
+            ps.setLong(1, exhibitionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getLong(1), rs.getInt(2));
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static int total(Map<Long, AtomicInteger> winsByStand) {
+        return winsByStand.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+}
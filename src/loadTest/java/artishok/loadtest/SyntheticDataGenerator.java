@@ -0,0 +1,503 @@
+package artishok.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import artishok.services.logging.LogPartitionService;
+import artishok.services.logging.LogRetentionService;
+
+/**
+ * Генератор больших объемов данных для поиска N+1 и полных сканирований: загрузка через COPY
+ * с явными id, поэтому внешние ключи вычисляются без обращений к БД, а последовательности
+ * выставляются в конце. Ограничения схемы не отключаются, данные строятся так, чтобы их
+ * соблюдать: end_date > start_date, размеры и координаты стендов, не более одного активного
+ * бронирования на стенд, статус стенда согласован с последним бронированием.
+ *
+ * Распределения: популярность галерей, стендов и художников и активность пользователей
+ * степенные (немногие объекты собирают большую часть событий), выставки разбросаны
+ * на два года назад и полгода вперед, журналы равномерно по последним log-months месяцам.
+ * Почты и пароль те же, что у LoadTestDataGenerator, поэтому база годится для loadTest
+ * с -Ploadtest.seed=none.
+ *
+ * Запуск: ./gradlew generatePerfData -Pdatagen.db.url=jdbc:postgresql://localhost:5432/artishok_perf
+ */
+public class SyntheticDataGenerator {
+    private static final long DAY = 86_400L;
+    private static final String[] ACTIVITY_ACTIONS = { "LOGIN", "LOGOUT", "CREATE_BOOKING", "UPDATE_PROFILE",
+            "CREATE_ARTWORK" };
+    private static final int[] ACTIVITY_WEIGHTS = { 40, 25, 20, 10, 5 };
+    private static final String[] AUDIT_ACTIONS = { "APPROVE_GALLERY", "REJECT_GALLERY", "BLOCK_USER",
+            "UNBLOCK_USER", "DELETE_CONTENT" };
+    private static final int[] AUDIT_WEIGHTS = { 30, 10, 25, 15, 20 };
+    private static final String[] STAND_TYPES = { "WALL", "BOOTH", "OPEN_SPACE" };
+    private static final int[] STAND_TYPE_WEIGHTS = { 50, 35, 15 };
+
+    private static final byte DRAFT = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte FINISHED = 2;
+    private static final byte CANCELLED = 0;
+    private static final byte PENDING = 1;
+    private static final byte CONFIRMED = 2;
+
+    public record Volumes(int users, int galleries, int exhibitionsPerGallery, int stands, long bookings,
+            long logs, double activityShare, int logMonths) {
+    }
+
+    private final Volumes volumes;
+    private final long seed;
+    private final long now;
+
+    private final int admins;
+    private final int owners;
+    private final int artists;
+    private final int exhibitions;
+
+    private byte[] galleryApproved;
+    private int[] exhibitionGallery;
+    private long[] exhibitionStart;
+    private long[] exhibitionEnd;
+    private byte[] exhibitionStatus;
+    private int[] standsPerMap;
+    private int[] standMap;
+    private int[] bookingsPerStand;
+    private long bookingId;
+
+    public SyntheticDataGenerator(Volumes volumes, long seed) {
+        this.volumes = volumes;
+        this.seed = seed;
+        this.now = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        this.admins = Math.max(1, volumes.users() / 10_000);
+        this.owners = Math.max(1, (int) (volumes.galleries() * 0.8));
+        this.artists = volumes.users() - admins - owners;
+        this.exhibitions = volumes.galleries() * volumes.exhibitionsPerGallery();
+        if (artists <= 0) {
+            throw new IllegalArgumentException("Пользователей меньше, чем администраторов и владельцев галерей");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("datagen.db.url", "");
+        if (url.isBlank()) {
+            throw new IllegalArgumentException("Не задан datagen.db.url");
+        }
+        Volumes volumes = new Volumes(
+                Integer.getInteger("datagen.users", 1_000_000),
+                Integer.getInteger("datagen.galleries", 50_000),
+                Integer.getInteger("datagen.exhibitions-per-gallery", 2),
+                Integer.getInteger("datagen.stands", 500_000),
+                Long.getLong("datagen.bookings", 5_000_000L),
+                Long.getLong("datagen.logs", 20_000_000L),
+                Double.parseDouble(System.getProperty("datagen.activity-share", "0.9")),
+                Integer.getInteger("datagen.log-months", 13));
+
+        try (LoadTestDatabase database = LoadTestDatabase.external(url,
+                System.getProperty("datagen.db.username", "postgres"),
+                System.getProperty("datagen.db.password", "postgres"))) {
+            if (Boolean.getBoolean("datagen.create-schema")) {
+                database.createSchema(Path.of("database"));
+            }
+            try (Connection connection = database.connect()) {
+                new SyntheticDataGenerator(volumes, Long.getLong("datagen.seed", 42L)).generate(connection);
+            }
+        }
+    }
+
+    public void generate(Connection connection) throws SQLException, IOException {
+        long started = System.nanoTime();
+        connection.setAutoCommit(false);
+
+        planGalleries();
+        planExhibitions();
+        planStands();
+        planBookings();
+
+        step("users", () -> copyUsers(connection));
+        step("gallery", () -> copyGalleries(connection));
+        step("gallery_ownership", () -> copyOwnership(connection));
+        step("exhibition_event", () -> copyExhibitions(connection));
+        step("exhibition_hall_map", () -> copyHallMaps(connection));
+        step("exhibition_stand", () -> copyStands(connection));
+        step("bookings", () -> copyBookings(connection));
+        connection.commit();
+
+        createLogPartitions(connection);
+        long activityRows = (long) (volumes.logs() * volumes.activityShare());
+        step(LogRetentionService.ACTIVITY_LOG, () -> copyActivityLog(connection, activityRows));
+        step(LogRetentionService.AUDIT_LOG, () -> copyAuditLog(connection, volumes.logs() - activityRows));
+        connection.commit();
+
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[] { "users", "gallery", "gallery_ownership", "exhibition_event",
+                    "exhibition_hall_map", "exhibition_stand", "bookings", LogRetentionService.ACTIVITY_LOG,
+                    LogRetentionService.AUDIT_LOG }) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                        + "(SELECT COALESCE(max(id), 1) FROM " + table + "))");
+            }
+            statement.execute("ANALYZE");
+        }
+        System.out.printf("Datagen: готово за %.1f с%n", (System.nanoTime() - started) / 1e9);
+    }
+
+    private interface Step {
+        long run() throws SQLException, IOException;
+    }
+
+    private static void step(String table, Step step) throws SQLException, IOException {
+        long started = System.nanoTime();
+        long rows = step.run();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Datagen: %-20s %,12d строк за %6.1f с (%,.0f строк/с)%n", table, rows, seconds,
+                rows / Math.max(seconds, 1e-3));
+    }
+
+    // --- План: распределения считаются заранее в компактных массивах, чтобы COPY шел одним проходом
+
+    private void planGalleries() {
+        SplittableRandom random = random(1);
+        galleryApproved = new byte[volumes.galleries() + 1];
+        for (int g = 1; g <= volumes.galleries(); g++) {
+            galleryApproved[g] = (byte) (random.nextInt(100) < 80 ? 1 : 0);
+        }
+    }
+
+    /**
+     * Выставки проводят только одобренные галереи; крупные галереи проводят их чаще
+     */
+    private void planExhibitions() {
+        SplittableRandom random = random(2);
+        exhibitionGallery = new int[exhibitions + 1];
+        exhibitionStart = new long[exhibitions + 1];
+        exhibitionEnd = new long[exhibitions + 1];
+        exhibitionStatus = new byte[exhibitions + 1];
+        for (int e = 1; e <= exhibitions; e++) {
+            int gallery;
+            int attempts = 0;
+            do {
+                gallery = 1 + skewed(random, volumes.galleries(), 1.5);
+            } while (galleryApproved[gallery] == 0 && ++attempts < 20);
+            exhibitionGallery[e] = gallery;
+
+            long start = now - 730 * DAY + (long) (random.nextDouble() * 910 * DAY);
+            start -= start % 3600;
+            long end = start + (14 + random.nextInt(77)) * DAY;
+            exhibitionStart[e] = start;
+            exhibitionEnd[e] = end;
+            if (end <= now) {
+                exhibitionStatus[e] = FINISHED;
+            } else if (start <= now) {
+                exhibitionStatus[e] = ACTIVE;
+            } else {
+                exhibitionStatus[e] = random.nextInt(100) < 30 ? ACTIVE : DRAFT;
+            }
+        }
+    }
+
+    /**
+     * Одна карта зала на выставку (id карты = id выставки), стенды по картам распределены неравномерно
+     */
+    private void planStands() {
+        SplittableRandom random = random(3);
+        standsPerMap = new int[exhibitions + 1];
+        for (int s = 0; s < volumes.stands(); s++) {
+            standsPerMap[1 + skewed(random, exhibitions, 1.5)]++;
+        }
+        standMap = new int[volumes.stands() + 1];
+        int stand = 1;
+        for (int map = 1; map <= exhibitions; map++) {
+            for (int i = 0; i < standsPerMap[map]; i++) {
+                standMap[stand++] = map;
+            }
+        }
+    }
+
+    /**
+     * Бронирования только на стенды активных и завершенных выставок, популярные стенды бронируют чаще
+     */
+    private void planBookings() {
+        SplittableRandom random = random(4);
+        bookingsPerStand = new int[volumes.stands() + 1];
+        if (volumes.stands() == 0) {
+            return;
+        }
+        for (long b = 0; b < volumes.bookings(); b++) {
+            for (int attempt = 0; attempt < 20; attempt++) {
+                int stand = 1 + skewed(random, volumes.stands(), 1.3);
+                if (exhibitionStatus[standMap[stand]] != DRAFT) {
+                    bookingsPerStand[stand]++;
+                    break;
+                }
+            }
+        }
+    }
+
+    // --- Загрузка
+
+    private long copyUsers(Connection connection) throws SQLException, IOException {
+        String passwordHash = new BCryptPasswordEncoder().encode(LoadTestDataGenerator.PASSWORD);
+        SplittableRandom random = random(5);
+        try (CopyWriter copy = new CopyWriter(connection, "users",
+                "id, email, password_hash, full_name, role, phone_number, bio, avatar_url, is_active, registration_date")) {
+            for (int id = 1; id <= volumes.users(); id++) {
+                String role;
+                String email;
+                int n;
+                if (id <= admins) {
+                    n = id;
+                    role = "ADMIN";
+                    email = "admin" + n + "@load.test";
+                } else if (id <= admins + owners) {
+                    n = id - admins;
+                    role = "GALLERY_OWNER";
+                    email = "owner" + n + "@load.test";
+                } else {
+                    n = id - admins - owners;
+                    role = "ARTIST";
+                    email = LoadTestDataGenerator.SeededData.artistEmail(n);
+                }
+                copy.field(id).field(email).field(passwordHash)
+                        .field((role.equals("ARTIST") ? "Художник " : role.equals("ADMIN") ? "Администратор " : "Владелец ") + n)
+                        .field(role)
+                        .field(random.nextInt(100) < 85 ? String.format("+79%09d", id) : null)
+                        .field(random.nextInt(100) < 40 ? "О себе: " + role.toLowerCase() + " " + n : null)
+                        .field(random.nextInt(100) < 60 ? "http://loadtest.local/artishok-images/avatars/" + id + ".jpg" : null)
+                        .field(random.nextInt(100) < 95 ? "t" : "f")
+                        .field(timestamp(now - (long) (random.nextDouble() * 3 * 365 * DAY)))
+                        .endRow();
+            }
+            return copy.getRows();
+        }
+    }
+
+    private long copyGalleries(Connection connection) throws SQLException, IOException {
+        SplittableRandom random = random(6);
+        try (CopyWriter copy = new CopyWriter(connection, "gallery",
+                "id, name, description, address, contact_phone, contact_email, logo_url, status, admin_comment")) {
+            for (int g = 1; g <= volumes.galleries(); g++) {
+                String status = galleryApproved[g] == 1 ? "APPROVED" : random.nextInt(100) < 75 ? "PENDING" : "REJECTED";
+                copy.field(g).field("Галерея " + g).field("Галерея современного искусства №" + g)
+                        .field("ул. Тверская, д. " + (1 + random.nextInt(200)) + ", корп. " + g + ", Москва")
+                        .field(String.format("+7495%07d", g % 10_000_000)).field("gallery" + g + "@load.test")
+                        .field(random.nextInt(100) < 70 ? "http://loadtest.local/artishok-images/logos/" + g + ".jpg" : null)
+                        .field(status)
+                        .field(status.equals("PENDING") ? null : "Проверена")
+                        .endRow();
+            }
+            return copy.getRows();
+        }
+    }
+
+    /**
+     * Основной владелец: owner ((g - 1) mod owners) + 1, поэтому часть владельцев держит
+     * несколько галерей; у 10% галерей есть второй владелец
+     */
+    private long copyOwnership(Connection connection) throws SQLException, IOException {
+        SplittableRandom random = random(7);
+        long id = 0;
+        try (CopyWriter copy = new CopyWriter(connection, "gallery_ownership",
+                "id, gallery_id, owner_id, is_primary, created_at")) {
+            for (int g = 1; g <= volumes.galleries(); g++) {
+                int primary = (g - 1) % owners + 1;
+                copy.field(++id).field(g).field(admins + primary).field("t")
+                        .field(timestamp(now - (long) (random.nextDouble() * 3 * 365 * DAY))).endRow();
+                if (owners > 1 && random.nextInt(100) < 10) {
+                    int secondary = 1 + random.nextInt(owners);
+                    if (secondary != primary) {
+                        copy.field(++id).field(g).field(admins + secondary).field("f")
+                                .field(timestamp(now - (long) (random.nextDouble() * 365 * DAY))).endRow();
+                    }
+                }
+            }
+            return copy.getRows();
+        }
+    }
+
+    private long copyExhibitions(Connection connection) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "exhibition_event",
+                "id, gallery_id, title, description, start_date, end_date, status")) {
+            for (int e = 1; e <= exhibitions; e++) {
+                copy.field(e).field(exhibitionGallery[e]).field("Выставка " + e)
+                        .field("Сезонная выставка галереи " + exhibitionGallery[e])
+                        .field(timestamp(exhibitionStart[e])).field(timestamp(exhibitionEnd[e]))
+                        .field(exhibitionStatus[e] == DRAFT ? "DRAFT" : exhibitionStatus[e] == ACTIVE ? "ACTIVE" : "FINISHED")
+                        .endRow();
+            }
+            return copy.getRows();
+        }
+    }
+
+    private long copyHallMaps(Connection connection) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "exhibition_hall_map",
+                "id, exhibition_event_id, map_image_url, name")) {
+            for (int map = 1; map <= exhibitions; map++) {
+                copy.field(map).field(map).field("http://loadtest.local/artishok-images/maps/hall" + map + ".jpg")
+                        .field("Главный зал").endRow();
+            }
+            return copy.getRows();
+        }
+    }
+
+    private long copyStands(Connection connection) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "exhibition_stand",
+                "id, exhibition_hall_map_id, stand_number, position_x, position_y, width, height, type, status")) {
+            int stand = 1;
+            for (int map = 1; map <= exhibitions; map++) {
+                for (int n = 0; n < standsPerMap[map]; n++, stand++) {
+                    SplittableRandom random = random(1_000_000_000L + stand);
+                    byte last = replayBookings(stand, null);
+                    copy.field(stand).field(map).field("S-" + (n + 1))
+                            .field((n % 20) * 150L).field((n / 20) * 120L)
+                            .field(50 + random.nextInt(251)).field(50 + random.nextInt(201))
+                            .field(STAND_TYPES[weighted(random, STAND_TYPE_WEIGHTS)])
+                            .field(last == CONFIRMED ? "BOOKED" : last == PENDING ? "PENDING" : "AVAILABLE")
+                            .endRow();
+                }
+            }
+            return copy.getRows();
+        }
+    }
+
+    private long copyBookings(Connection connection) throws SQLException, IOException {
+        try (CopyWriter copy = new CopyWriter(connection, "bookings",
+                "id, exhibition_stand_id, artist_id, booking_date, status")) {
+            for (int stand = 1; stand <= volumes.stands(); stand++) {
+                replayBookings(stand, copy);
+            }
+            return copy.getRows();
+        }
+    }
+
+    /**
+     * История бронирований стенда детерминирована его id: первый проход (copy == null) только
+     * узнает статус последнего бронирования для стенда, второй пишет строки. Все бронирования,
+     * кроме последнего, отменены - на стенде не больше одного PENDING/CONFIRMED.
+     */
+    private byte replayBookings(int stand, CopyWriter copy) throws IOException {
+        int count = bookingsPerStand[stand];
+        if (count == 0) {
+            return CANCELLED;
+        }
+        SplittableRandom random = random(2_000_000_000L + stand);
+        int exhibition = standMap[stand];
+        long from = exhibitionStart[exhibition] - 60 * DAY;
+        long to = Math.max(from + 1, Math.min(exhibitionEnd[exhibition], now));
+        long step = (to - from) / count;
+
+        byte last;
+        int roll = random.nextInt(100);
+        if (exhibitionStatus[exhibition] == FINISHED) {
+            last = roll < 70 ? CONFIRMED : CANCELLED;
+        } else {
+            last = roll < 50 ? CONFIRMED : roll < 80 ? PENDING : CANCELLED;
+        }
+
+        if (copy != null) {
+            for (int i = 0; i < count; i++) {
+                byte status = i == count - 1 ? last : CANCELLED;
+                long date = from + i * step + (step > 1 ? random.nextLong(step) : 0);
+                copy.field(++bookingId).field(stand).field(admins + owners + 1 + skewed(random, artists, 2.0))
+                        .field(timestamp(date))
+                        .field(status == CONFIRMED ? "CONFIRMED" : status == PENDING ? "PENDING" : "CANCELLED")
+                        .endRow();
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Партиции журналов на весь период генерации создает та же логика, что и у приложения
+     */
+    private void createLogPartitions(Connection connection) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        LogPartitionService partitions = new LogPartitionService(jdbcTemplate, volumes.logMonths() + 3);
+        YearMonth from = YearMonth.now().minusMonths(volumes.logMonths());
+        partitions.ensurePartitions(LogRetentionService.ACTIVITY_LOG, from);
+        partitions.ensurePartitions(LogRetentionService.AUDIT_LOG, from);
+    }
+
+    /**
+     * Строки идут по возрастанию времени, как их пишет приложение
+     */
+    private long copyActivityLog(Connection connection, long rows) throws SQLException, IOException {
+        SplittableRandom random = random(8);
+        long from = now - volumes.logMonths() * 30L * DAY;
+        double step = (double) (now - from) / Math.max(rows, 1);
+        try (CopyWriter copy = new CopyWriter(connection, LogRetentionService.ACTIVITY_LOG,
+                "id, user_id, action, timestamp")) {
+            for (long i = 0; i < rows; i++) {
+                copy.field(i + 1).field(admins + 1 + skewed(random, owners + artists, 2.0))
+                        .field(ACTIVITY_ACTIONS[weighted(random, ACTIVITY_WEIGHTS)])
+                        .field(timestamp(from + (long) ((i + random.nextDouble()) * step)))
+                        .endRow();
+            }
+            return copy.getRows();
+        }
+    }
+
+    private long copyAuditLog(Connection connection, long rows) throws SQLException, IOException {
+        SplittableRandom random = random(9);
+        long from = now - volumes.logMonths() * 30L * DAY;
+        double step = (double) (now - from) / Math.max(rows, 1);
+        try (CopyWriter copy = new CopyWriter(connection, LogRetentionService.AUDIT_LOG,
+                "id, admin_id, action, target_entity_id, timestamp")) {
+            for (long i = 0; i < rows; i++) {
+                int action = weighted(random, AUDIT_WEIGHTS);
+                long target = switch (action) {
+                    case 0, 1 -> 1 + random.nextInt(volumes.galleries());
+                    case 2, 3 -> 1 + random.nextInt(volumes.users());
+                    default -> 1 + random.nextInt(Math.max(volumes.stands(), 1));
+                };
+                copy.field(i + 1).field(1 + random.nextInt(admins)).field(AUDIT_ACTIONS[action]).field(target)
+                        .field(timestamp(from + (long) ((i + random.nextDouble()) * step)))
+                        .endRow();
+            }
+            return copy.getRows();
+        }
+    }
+
+    // --- Распределения
+
+    /**
+     * Индекс 0..size-1 со степенной плотностью: при exponent > 1 малые значения заметно вероятнее.
+     * Индексы перемешиваются умножением на простое число, чтобы популярность не совпадала с порядком id.
+     */
+    private static int skewed(SplittableRandom random, int size, double exponent) {
+        long rank = (long) (size * Math.pow(random.nextDouble(), exponent));
+        return (int) ((rank * 1_000_003L) % size);
+    }
+
+    private static int weighted(SplittableRandom random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private SplittableRandom random(long stream) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + stream);
+    }
+
+    private static String timestamp(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS).toString();
+    }
+}
@@ -6,23 +6,34 @@ import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import artishok.entities.AdminAuditLog;
 import artishok.services.AdminAuditLogService;
+import artishok.services.logging.ExportTimeoutInterceptor;
+import artishok.services.logging.LogExportService;
+import artishok.services.logging.LogExportService.ExportFormat;
+import artishok.services.logging.LogRetentionService.PurgeResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/adminlogs")
 public class AdminAuditController {
 	private final AdminAuditLogService adminAuditLogService;
+	private final LogExportService logExportService;
 
-	AdminAuditController(AdminAuditLogService adminAuditLogService) {
+	AdminAuditController(AdminAuditLogService adminAuditLogService, LogExportService logExportService) {
 		this.adminAuditLogService = adminAuditLogService;
+		this.logExportService = logExportService;
 	}
 
 	@Operation(summary = "Создание записи в логе", description = "Ручное создание записи о действии администратора")
@@ -62,6 +73,34 @@ public class AdminAuditController {
 		return ResponseEntity.ok(logs);
 	}
 
+	@Operation(summary = "Потоковая выгрузка записей", description = "NDJSON или CSV за период (по умолчанию последние 30 дней) с фильтром по действию")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Выгрузка начата"),
+			@ApiResponse(responseCode = "400", description = "Неверные параметры") })
+	@GetMapping("/export")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<?> exportLogs(HttpServletRequest request,
+			@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(value = "action", required = false) String action,
+			@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+		try {
+			ExportFormat exportFormat = ExportFormat.parse(format);
+			LocalDateTime end = to != null ? to : LocalDateTime.now();
+			LocalDateTime start = from != null ? from : end.minusDays(30);
+			if (!start.isBefore(end)) {
+				throw new IllegalArgumentException("Начало периода должно быть раньше конца");
+			}
+			ExportTimeoutInterceptor.markExport(request);
+			StreamingResponseBody body = out -> logExportService.exportAuditLogs(start, end, action, exportFormat, out);
+			return ResponseEntity.ok().contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+					.header(HttpHeaders.CONTENT_DISPOSITION,
+							"attachment; filename=\"admin-audit-log." + exportFormat.getExtension() + "\"")
+					.body(body);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+		}
+	}
+
 	@Operation(summary = "Получение записей по администратору", description = "Получение всех записей логов конкретного администратора")
 	@ApiResponse(responseCode = "200", description = "Список записей получен")
 	@GetMapping("/admin/{adminId}")
@@ -150,9 +189,10 @@ public class AdminAuditController {
 	@DeleteMapping("/cleanup")
 	public ResponseEntity<Map<String, Object>> deleteOldLogs(
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cutoffDate) {
-		int deletedCount = adminAuditLogService.deleteOldLogs(cutoffDate);
-		return ResponseEntity.ok(Map.of("cutoffDate", cutoffDate, "deletedCount", deletedCount, "message",
-				"Удалено " + deletedCount + " записей старше " + cutoffDate));
+		PurgeResult result = adminAuditLogService.deleteOldLogs(cutoffDate);
+		return ResponseEntity.ok(Map.of("cutoffDate", cutoffDate, "deletedCount", result.rows(), "partitionsDropped",
+				result.partitionsDropped(), "durationSeconds", result.seconds(), "message",
+				"Удалено " + result.rows() + " записей старше " + cutoffDate));
 	}
 
 	@Operation(summary = "Очистка всех записей", description = "Полное удаление всех записей логов администраторов")
@@ -14,6 +14,7 @@ import artishok.entities.Booking;
 import artishok.entities.enums.ArtworkStatus;
 import artishok.services.*;
 import artishok.repositories.*;
+import jakarta.servlet.http.HttpServletRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -306,5 +307,37 @@ public class ArtworkController {
                     .body(Map.of("error", e.getMessage()));
         }
     }
+    
+    // 4. Обновление изображения потоком: тело запроса - байты файла (Content-Type image/*)
+    @PutMapping("/{id}/image/stream")
+    public ResponseEntity<?> updateArtworkImageStream(
+            @PathVariable Long id,
+            @RequestParam(value = "filename", required = false) String filename,
+            HttpServletRequest request) {
+        
+        try {
+            Artwork artwork = artworkRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Artwork not found"));
+            
+            String oldImageUrl = artwork.getImageUrl();
+            String newImageUrl = imageService.uploadImageStream(request.getInputStream(),
+                    request.getContentLengthLong(), request.getContentType(), filename, "artwork", id);
+            artwork.setImageUrl(newImageUrl);
+            artworkRepository.save(artwork);
+            
+            // Старое изображение удаляется только после успешной загрузки нового
+            if (oldImageUrl != null) {
+                imageService.deleteImage(oldImageUrl);
+            }
+            
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "imageUrl", newImageUrl
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
 
 }
@@ -77,9 +77,11 @@ public class AuthController {
 		user.setRegistrationDate(LocalDateTime.now());
 		user.setIsActive(false);
 
-		userRepository.save(user);
-
-		emailVerificationService.sendVerificationEmail(user);
+		try {
+			user = emailVerificationService.registerUnverifiedUser(user);
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+		}
 
 		return ResponseEntity
 				.ok(Map.of("success", true, "message", "Регистрация успешна. Проверьте email для подтверждения.",
@@ -126,8 +128,11 @@ public class AuthController {
 	        }
 	    }
 
-	    userRepository.save(user);
-	    emailVerificationService.sendVerificationEmail(user);
+	    try {
+	        user = emailVerificationService.registerUnverifiedUser(user);
+	    } catch (IllegalStateException e) {
+	        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+	    }
 
 	    return ResponseEntity.ok(Map.of(
 	        "success", true,
@@ -233,6 +238,9 @@ public class AuthController {
 		} catch (IllegalArgumentException e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
 					.body(Map.of("success", false, "message", e.getMessage()));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.body(Map.of("success", false, "message", e.getMessage()));
 		}
 	}
 
@@ -15,6 +15,7 @@ import artishok.entities.ExhibitionHallMap;
 import artishok.services.ExhibitionHallMapService;
 import artishok.services.ImageService;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
 @RestController
@@ -156,6 +157,44 @@ public class ExhibitionHallMapController {
         }
     }
 
+    @PostMapping("/{id}/upload-map-image/stream")
+    @Operation(summary = "Загрузить/обновить изображение карты потоком",
+            description = "Тело запроса - байты изображения с Content-Type image/*, без multipart")
+    @ApiResponse(responseCode = "200", description = "Изображение успешно загружено")
+    @ApiResponse(responseCode = "404", description = "Карта не найдена")
+    public ResponseEntity<?> uploadMapImageStream(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "filename", required = false) String filename,
+            HttpServletRequest request) {
+        
+        try {
+            ExhibitionHallMap map = exhibitionHallMapService.getExhibitionHallMapById(id)
+                    .orElseThrow(() -> new RuntimeException("Карта не найдена с ID: " + id));
+            
+            String oldMapImageUrl = map.getMapImageUrl();
+            String mapImageUrl = imageService.uploadImageStream(request.getInputStream(),
+                    request.getContentLengthLong(), request.getContentType(), filename, "map", id);
+            map.setMapImageUrl(mapImageUrl);
+            ExhibitionHallMap updatedMap = exhibitionHallMapService.saveExhibitionHallMap(map);
+            
+            // Старое изображение удаляется только после успешной загрузки нового
+            if (oldMapImageUrl != null) {
+                imageService.deleteImage(oldMapImageUrl);
+            }
+            
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "mapImageUrl", mapImageUrl,
+                "mapId", id,
+                "mapName", updatedMap.getName()
+            ));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Обновить карту выставочного зала")
     @ApiResponse(responseCode = "200", description = "Карта успешно обновлена")
@@ -8,6 +8,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import java.util.Map;
 
 @RestController
@@ -37,6 +39,7 @@ public class ImageController {
             return ResponseEntity.ok(Map.of(
                 "success", true,
                 "url", imageUrl,
+                "srcset", imageService.getSrcset(imageUrl),
                 "filename", file.getOriginalFilename(),
                 "size", file.getSize()
             ));
@@ -47,6 +50,58 @@ public class ImageController {
         }
     }
     
+    /**
+     * Потоковая загрузка изображения: тело запроса - сами байты файла с Content-Type image/*,
+     * без multipart, поэтому файл не копируется во временный файл и не собирается в памяти
+     * 
+     * @param category категория (artwork, gallery, avatar, map)
+     * @param entityId ID сущности (опционально)
+     * @param filename исходное имя файла (опционально, для расширения)
+     * @return URL загруженного изображения
+     */
+    @PostMapping("/upload-stream")
+    public ResponseEntity<?> uploadImageStream(
+            HttpServletRequest request,
+            @RequestParam("category") String category,
+            @RequestParam(value = "entityId", required = false) Long entityId,
+            @RequestParam(value = "filename", required = false) String filename) {
+        
+        try {
+            String imageUrl = imageService.uploadImageStream(request.getInputStream(),
+                    request.getContentLengthLong(), request.getContentType(), filename, category, entityId);
+            
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "url", imageUrl,
+                "srcset", imageService.getSrcset(imageUrl)
+            ));
+            
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Уменьшенные копии изображения для srcset. Пока ready = false, копии еще строятся
+     * и клиенту следует показывать оригинал.
+     * 
+     * @param url URL оригинала, полученный при загрузке
+     */
+    @GetMapping("/srcset")
+    public ResponseEntity<?> getSrcset(@RequestParam("url") String url) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                "url", url,
+                "ready", imageService.isDerivativesReady(url),
+                "srcset", imageService.getSrcset(url)
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "error", e.getMessage()));
+        }
+    }
+    
     /**
      * Простой тестовый эндпоинт
      */
@@ -2,6 +2,10 @@ package artishok.controllers;
 
 import artishok.entities.UserActivityLog;
 import artishok.services.UserActivityLogService;
+import artishok.services.logging.ExportTimeoutInterceptor;
+import artishok.services.logging.LogExportService;
+import artishok.services.logging.LogExportService.ExportFormat;
+import artishok.services.logging.LogRetentionService.PurgeResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,13 +13,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,9 +36,12 @@ import java.util.Map;
 public class UserActivityLogController {
     
     private final UserActivityLogService userActivityLogService;
+    private final LogExportService logExportService;
     
-    public UserActivityLogController(UserActivityLogService userActivityLogService) {
+    public UserActivityLogController(UserActivityLogService userActivityLogService,
+                                     LogExportService logExportService) {
         this.userActivityLogService = userActivityLogService;
+        this.logExportService = logExportService;
     }
     
     @Operation(summary = "Создание записи активности")
@@ -51,6 +63,34 @@ public class UserActivityLogController {
         return ResponseEntity.ok(userActivityLogService.getAllLogs());
     }
     
+    @Operation(summary = "Потоковая выгрузка записей", description = "NDJSON или CSV за период (по умолчанию последние 30 дней)")
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportLogs(HttpServletRequest request,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "action", required = false) String action,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        try {
+            ExportFormat exportFormat = ExportFormat.parse(format);
+            LocalDateTime end = to != null ? to : LocalDateTime.now();
+            LocalDateTime start = from != null ? from : end.minusDays(30);
+            if (!start.isBefore(end)) {
+                throw new IllegalArgumentException("Начало периода должно быть раньше конца");
+            }
+            ExportTimeoutInterceptor.markExport(request);
+            StreamingResponseBody body = out -> logExportService.exportActivityLogs(start, end, action,
+                    exportFormat, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"user-activity-log." + exportFormat.getExtension() + "\"")
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @Operation(summary = "Получение записей пользователя")
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<UserActivityLog>> getLogsByUser(@PathVariable("userId") Long userId) {
@@ -117,8 +157,9 @@ public class UserActivityLogController {
     @DeleteMapping("/cleanup")
     public ResponseEntity<Map<String, Object>> deleteOldLogs(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cutoffDate) {
-        int deleted = userActivityLogService.deleteOldLogs(cutoffDate);
-        return ResponseEntity.ok(Map.of("deletedCount", deleted, "cutoffDate", cutoffDate));
+        PurgeResult result = userActivityLogService.deleteOldLogs(cutoffDate);
+        return ResponseEntity.ok(Map.of("deletedCount", result.rows(), "cutoffDate", cutoffDate,
+                "partitionsDropped", result.partitionsDropped(), "durationSeconds", result.seconds()));
     }
     
     @Operation(summary = "Логирование входа пользователя")
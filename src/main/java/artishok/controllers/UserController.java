@@ -20,6 +20,7 @@ import artishok.entities.User;
 import artishok.entities.enums.UserRole;
 import artishok.repositories.UserRepository;
 import artishok.services.*;
+import artishok.services.stats.StatisticsService;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
@@ -34,11 +35,14 @@ public class UserController {
     private final UserRepository userRepository;
 	private final UserService userService;
 	private final ImageService imageService;
+	private final StatisticsService statisticsService;
 
-	UserController(UserService userService, UserRepository userRepository, ImageService imageService) {
+	UserController(UserService userService, UserRepository userRepository, ImageService imageService,
+			StatisticsService statisticsService) {
 		this.userService = userService;
 		this.userRepository = userRepository;
 		this.imageService = imageService;
+		this.statisticsService = statisticsService;
 	}
 
 	@PostMapping
@@ -195,9 +199,9 @@ public class UserController {
 	@ApiResponse(responseCode = "200", description = "Статистика получена")
 	@GetMapping("/stats/count-by-role")
 	public ResponseEntity<Map<String, Object>> getUserCountByRole() {
-		Map<String, Object> stats = Map.of("adminCount", userService.countUsersByRole(UserRole.ADMIN),
-				"galleryOwnerCount", userService.countUsersByRole(UserRole.GALLERY_OWNER), "artistCount",
-				userService.countUsersByRole(UserRole.ARTIST), "totalCount", userService.getAllUsers().size());
+		Map<String, Object> stats = Map.of("adminCount", statisticsService.countUsers(UserRole.ADMIN),
+				"galleryOwnerCount", statisticsService.countUsers(UserRole.GALLERY_OWNER), "artistCount",
+				statisticsService.countUsers(UserRole.ARTIST), "totalCount", statisticsService.countAllUsers());
 		return ResponseEntity.ok(stats);
 	}
 
@@ -4,8 +4,10 @@ import artishok.entities.Gallery;
 import artishok.entities.User;
 import artishok.entities.enums.GalleryStatus;
 import artishok.entities.enums.UserRole;
+import artishok.services.EmailVerificationService;
 import artishok.services.GalleryService;
 import artishok.services.UserService;
+import artishok.services.stats.StatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -32,6 +34,10 @@ public class AdminController {
 	private UserService userService;
 	@Autowired
 	private GalleryService galleryService;
+	@Autowired
+	private StatisticsService statisticsService;
+	@Autowired
+	private EmailVerificationService emailVerificationService;
 
 	@GetMapping("/users")
 	@Operation(summary = "Получить всех пользователей")
@@ -106,11 +112,14 @@ public class AdminController {
 	@Operation(summary = "Получить статистику системы")
 	public ResponseEntity<?> getStatistics() {
 		try {
+			// Счетчики в памяти, без запросов к БД
 			return ResponseEntity.ok(Map.of("success", true, "statistics",
-					Map.of("totalUsers", userService.getTotalUsersCount(), "activeUsers",
-							userService.getActiveUsersCount(), "artists", userService.countUsersByRole(UserRole.ARTIST),
-							"galleryOwners", userService.countUsersByRole(UserRole.GALLERY_OWNER), "admins",
-							userService.countUsersByRole(UserRole.ADMIN))));
+					Map.of("totalUsers", statisticsService.countAllUsers(), "activeUsers",
+							statisticsService.countActiveUsers(), "artists", statisticsService.countUsers(UserRole.ARTIST),
+							"galleryOwners", statisticsService.countUsers(UserRole.GALLERY_OWNER), "admins",
+							statisticsService.countUsers(UserRole.ADMIN), "galleriesByStatus",
+							statisticsService.getGalleriesByStatus(), "bookingsByStatus",
+							statisticsService.getBookingsByStatus())));
 		} catch (Exception e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("error", "Ошибка получения статистики"));
@@ -136,6 +145,19 @@ public class AdminController {
 		}
 	}
 
+	@PostMapping("/users/resend-verification")
+	@Operation(summary = "Повторно отправить письма подтверждения пользователям с истекшим токеном")
+	public ResponseEntity<?> resendExpiredVerifications() {
+		try {
+			int resent = emailVerificationService.resendExpiredVerifications();
+			return ResponseEntity.ok(Map.of("success", true, "message", "Письма подтверждения поставлены в очередь",
+					"resent", resent));
+		} catch (Exception e) {
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+					.body(Map.of("error", "Ошибка повторной рассылки: " + e.getMessage()));
+		}
+	}
+
 	@DeleteMapping("/users/{id}")
 	@Operation(summary = "Удалить пользователя")
 	public ResponseEntity<?> deleteUser(@PathVariable("id") Long id) {
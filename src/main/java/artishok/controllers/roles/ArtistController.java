@@ -1,5 +1,7 @@
 package artishok.controllers.roles;
 
+import artishok.dto.CursorPage;
+import artishok.dto.StandSummaryDto;
 import artishok.entities.*;
 import artishok.entities.enums.ArtworkStatus;
 import artishok.entities.enums.BookingStatus;
@@ -12,6 +14,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -43,44 +48,56 @@ public class ArtistController {
 	private ExhibitionStandService exhibitionStandService;
 	@Autowired
 	private ExhibitionHallMapService exhibitionHallMapService;
+	@Autowired
+	private StandAvailabilityService standAvailabilityService;
 
 	@GetMapping("/artworks")
 	@Operation(summary = "Получить мои произведения")
 	public ResponseEntity<?> getMyArtworks(@RequestParam(value = "status", required = false) String status,
 			@RequestParam(value = "page", defaultValue = "0") int page,
-			@RequestParam(value = "size", defaultValue = "10") int size) {
+			@RequestParam(value = "size", defaultValue = "10") int size,
+			@RequestParam(value = "cursor", required = false) String cursor) {
 
 		try {
 			User currentUser = userService.getCurrentUser();
 
-			List<Booking> artistBookings = bookingService.getAllBookings().stream()
-					.filter(booking -> booking.getArtist().getId().equals(currentUser.getId()))
-					.collect(Collectors.toList());
-
-			List<Long> bookingIds = artistBookings.stream().map(Booking::getId).collect(Collectors.toList());
-
-			List<Artwork> allArtworks = artworkService.getAllArtworks().stream()
-					.filter(artwork -> bookingIds.contains(artwork.getBooking().getId())).collect(Collectors.toList());
-
+			ArtworkStatus artworkStatus = null;
 			if (status != null && !status.isEmpty()) {
 				try {
-					ArtworkStatus artworkStatus = ArtworkStatus.valueOf(status.toUpperCase());
-					allArtworks = allArtworks.stream().filter(artwork -> artwork.getStatus() == artworkStatus)
-							.collect(Collectors.toList());
+					artworkStatus = ArtworkStatus.valueOf(status.toUpperCase());
 				} catch (IllegalArgumentException e) {
 					return ResponseEntity.badRequest().body(Map.of("error", "Некорректный статус произведения"));
 				}
 			}
 
-			int start = Math.min(page * size, allArtworks.size());
-			int end = Math.min(start + size, allArtworks.size());
-			List<Artwork> paginatedArtworks = allArtworks.subList(start, end);
+			if (cursor != null) {
+				Long afterId = CursorPage.start(cursor);
+				if (afterId == null || size < 1) {
+					return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
+				}
+				Map<String, Object> response = artworkService
+						.getArtworksByArtistAfter(currentUser.getId(), artworkStatus, afterId, size)
+						.toResponse("artworks", this::convertArtworkToDTO, size);
+				response.put("artistId", currentUser.getId());
+				return ResponseEntity.ok(response);
+			}
+
+			if (page < 0 || size < 1) {
+				return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
+			}
+
+			Page<Artwork> artworksPage = artworkService.getArtworksByArtist(currentUser.getId(), artworkStatus,
+					PageRequest.of(page, size, Sort.by("id")));
 
-			List<Map<String, Object>> artworkDTOs = paginatedArtworks.stream().map(this::convertArtworkToDTO)
+			List<Map<String, Object>> artworkDTOs = artworksPage.getContent().stream().map(this::convertArtworkToDTO)
 					.collect(Collectors.toList());
 
-			return ResponseEntity.ok(Map.of("success", true, "artworks", artworkDTOs, "total", allArtworks.size(),
-					"artistId", currentUser.getId(), "page", page, "size", size));
+			Map<String, Object> response = new HashMap<>(Map.of("success", true, "artworks", artworkDTOs, "total",
+					artworksPage.getTotalElements(), "artistId", currentUser.getId(), "page", page, "size", size));
+			response.put("nextCursor", artworksPage.hasNext() && artworksPage.hasContent()
+					? CursorPage.encode(artworksPage.getContent().get(artworksPage.getNumberOfElements() - 1).getId())
+					: null);
+			return ResponseEntity.ok(response);
 		} catch (Exception e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("error", "Ошибка получения произведений: " + e.getMessage()));
@@ -245,36 +262,47 @@ public class ArtistController {
 	@GetMapping("/bookings")
 	@Operation(summary = "Получить мои бронирования")
 	public ResponseEntity<?> getMyBookings(@RequestParam(value="status", required = false) String status,
-			@RequestParam(value="page", defaultValue = "0") int page, @RequestParam(value="size", defaultValue = "10") int size) {
+			@RequestParam(value="page", defaultValue = "0") int page, @RequestParam(value="size", defaultValue = "10") int size,
+			@RequestParam(value = "cursor", required = false) String cursor) {
 
 		try {
 			User currentUser = userService.getCurrentUser();
 
-			List<Booking> allBookings = bookingService.getAllBookings();
-
-			List<Booking> artistBookings = allBookings.stream()
-					.filter(booking -> booking.getArtist().getId().equals(currentUser.getId()))
-					.collect(Collectors.toList());
-
+			BookingStatus bookingStatus = null;
 			if (status != null && !status.isEmpty()) {
 				try {
-					BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
-					artistBookings = artistBookings.stream().filter(booking -> booking.getStatus() == bookingStatus)
-							.collect(Collectors.toList());
+					bookingStatus = BookingStatus.valueOf(status.toUpperCase());
 				} catch (IllegalArgumentException e) {
 					return ResponseEntity.badRequest().body(Map.of("error", "Некорректный статус бронирования"));
 				}
 			}
 
-			int start = Math.min(page * size, artistBookings.size());
-			int end = Math.min(start + size, artistBookings.size());
-			List<Booking> paginatedBookings = artistBookings.subList(start, end);
+			if (cursor != null) {
+				Long afterId = CursorPage.start(cursor);
+				if (afterId == null || size < 1) {
+					return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
+				}
+				return ResponseEntity.ok(bookingService
+						.getBookingsByArtistAfter(currentUser.getId(), bookingStatus, afterId, size)
+						.toResponse("bookings", this::convertBookingToDTO, size));
+			}
+
+			if (page < 0 || size < 1) {
+				return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
+			}
+
+			Page<Booking> bookingsPage = bookingService.getBookingsByArtist(currentUser.getId(), bookingStatus,
+					PageRequest.of(page, size, Sort.by("id")));
 
-			List<Map<String, Object>> bookingDTOs = paginatedBookings.stream().map(this::convertBookingToDTO)
+			List<Map<String, Object>> bookingDTOs = bookingsPage.getContent().stream().map(this::convertBookingToDTO)
 					.collect(Collectors.toList());
 
-			return ResponseEntity.ok(Map.of("success", true, "bookings", bookingDTOs, "total", artistBookings.size(),
-					"page", page, "size", size));
+			Map<String, Object> response = new HashMap<>(Map.of("success", true, "bookings", bookingDTOs, "total",
+					bookingsPage.getTotalElements(), "page", page, "size", size));
+			response.put("nextCursor", bookingsPage.hasNext() && bookingsPage.hasContent()
+					? CursorPage.encode(bookingsPage.getContent().get(bookingsPage.getNumberOfElements() - 1).getId())
+					: null);
+			return ResponseEntity.ok(response);
 		} catch (Exception e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("error", "Ошибка получения бронирований: " + e.getMessage()));
@@ -342,22 +370,12 @@ public class ArtistController {
 				return ResponseEntity.badRequest().body(Map.of("error", "Выставка уже завершена"));
 			}
 
-			List<Booking> standBookings = bookingService.getAllBookings().stream()
-					.filter(b -> b.getExhibitionStand().getId().equals(exhibitionStandId))
-					.filter(b -> b.getStatus() == BookingStatus.CONFIRMED || b.getStatus() == BookingStatus.PENDING)
-					.collect(Collectors.toList());
-
-			if (!standBookings.isEmpty()) {
-				return ResponseEntity.badRequest().body(Map.of("error", "Стенд уже забронирован"));
+			Booking savedBooking;
+			try {
+				savedBooking = bookingService.reserveStand(currentUser, exhibitionStandId);
+			} catch (IllegalArgumentException e) {
+				return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
 			}
-			stand.setStatus(StandStatus.PENDING);
-			exhibitionStandService.saveExhibitionStand(stand);
-			Booking booking = new Booking();
-			booking.setExhibitionStand(stand);
-			booking.setArtist(currentUser);
-			booking.setStatus(BookingStatus.PENDING);
-
-			Booking savedBooking = bookingService.saveBooking(booking);
 
 			return ResponseEntity.ok(Map.of("success", true, "message", "Запрос на бронирование создан", "booking",
 					convertBookingToDTO(savedBooking)));
@@ -399,11 +417,10 @@ public class ArtistController {
 						.body(Map.of("error", "Нельзя отменить бронирование после начала выставки"));
 			}
 
-			booking.setStatus(BookingStatus.CANCELLED);
-
 			String reason = request != null ? request.get("reason") : "Отменено художником";
 
-			Booking savedBooking = bookingService.saveBooking(booking);
+			// Отмена через сервис освобождает стенд для следующих бронирований
+			Booking savedBooking = bookingService.cancelBooking(id);
 
 			return ResponseEntity.ok(Map.of("success", true, "message", "Бронирование отменено", "booking",
 					convertBookingToDTO(savedBooking)));
@@ -441,32 +458,18 @@ public class ArtistController {
 	public ResponseEntity<?> getAvailableStands(@PathVariable("id") Long id) {
 		try {
 
-			Optional<ExhibitionEvent> exhibitionOpt = exhibitionEventService.getExhibitionEventById(id);
+			Optional<StandAvailabilityService.EventStands> exhibitionOpt = standAvailabilityService.getEventStands(id);
 			if (!exhibitionOpt.isPresent()) {
 				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Выставка не найдена"));
 			}
 
-			ExhibitionEvent exhibition = exhibitionOpt.get();
+			StandAvailabilityService.EventStands exhibition = exhibitionOpt.get();
 
 			if (exhibition.getStatus() != ExhibitionStatus.ACTIVE) {
 				return ResponseEntity.badRequest().body(Map.of("error", "Выставка не активна"));
 			}
 
-			List<ExhibitionHallMap> hallMaps = exhibitionHallMapService.getExhibitionHallMapsByEventId(id);
-
-			List<ExhibitionStand> allStands = hallMaps.stream()
-					.flatMap(hallMap -> exhibitionStandService.getExhibitionStandsByHallMapId(hallMap.getId()).stream())
-					.collect(Collectors.toList());
-
-			List<Booking> allBookings = bookingService.getAllBookings();
-
-			List<ExhibitionStand> availableStands = allStands.stream().filter(stand -> {
-				boolean isBooked = allBookings.stream()
-						.anyMatch(booking -> booking.getExhibitionStand().getId().equals(stand.getId())
-								&& (booking.getStatus() == BookingStatus.CONFIRMED
-										|| booking.getStatus() == BookingStatus.PENDING));
-				return !isBooked;
-			}).collect(Collectors.toList());
+			List<StandSummaryDto> availableStands = exhibition.getStands(StandStatus.AVAILABLE);
 
 			List<Map<String, Object>> standDTOs = availableStands.stream().map(this::convertStandToDTO)
 					.collect(Collectors.toList());
@@ -586,4 +589,20 @@ public class ArtistController {
 
 		return dto;
 	}
+
+	private Map<String, Object> convertStandToDTO(StandSummaryDto stand) {
+		Map<String, Object> dto = new HashMap<>();
+		dto.put("id", stand.getId());
+		dto.put("standNumber", stand.getStandNumber());
+		dto.put("positionX", stand.getPositionX());
+		dto.put("positionY", stand.getPositionY());
+		dto.put("width", stand.getWidth());
+		dto.put("height", stand.getHeight());
+		dto.put("type", stand.getType().toString());
+		dto.put("hallMapId", stand.getHallMapId());
+		dto.put("hallMapName", stand.getHallMapName());
+		dto.put("exhibitionId", stand.getExhibitionId());
+		dto.put("exhibitionTitle", stand.getExhibitionTitle());
+		return dto;
+	}
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package artishok.controllers.roles;
 
+import artishok.dto.CursorPage;
+import artishok.dto.StandSummaryDto;
 import artishok.entities.*;
 import artishok.entities.enums.*;
 import artishok.services.*;
@@ -9,6 +11,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -47,28 +52,35 @@ public class GalleryOwnerController {
 	@Operation(summary = "Получить мои галереи")
 	public ResponseEntity<?> getMyGalleries(@RequestParam(value = "status", required = false) String status,
 			@RequestParam(value = "page", defaultValue = "0") int page,
-			@RequestParam(value = "size", defaultValue = "10") int size) {
+			@RequestParam(value = "size", defaultValue = "10") int size,
+			@RequestParam(value = "cursor", required = false) String cursor) {
 
 		try {
 			User currentUser = userService.getCurrentUser();
 
-			List<Map<String, Object>> galleryDTOs = galleryService.getOwnerGalleries(currentUser.getId(), status, page,
-					size);
-
-			List<Gallery> allOwnerGalleries = galleryService.getGalleriesByOwnerId(currentUser.getId());
-
-			if (status != null && !status.isEmpty()) {
-				try {
-					GalleryStatus galleryStatus = GalleryStatus.valueOf(status.toUpperCase());
-					allOwnerGalleries = allOwnerGalleries.stream()
-							.filter(gallery -> gallery.getStatus() == galleryStatus).collect(Collectors.toList());
-				} catch (IllegalArgumentException e) {
-
+			if (cursor != null) {
+				Long afterId = CursorPage.start(cursor);
+				if (afterId == null || size < 1) {
+					return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
 				}
+				return ResponseEntity.ok(galleryService.getOwnerGalleriesAfter(currentUser.getId(), status, afterId, size)
+						.toResponse("galleries", gallery -> gallery, size));
 			}
 
-			return ResponseEntity.ok(Map.of("success", true, "galleries", galleryDTOs, "total",
-					allOwnerGalleries.size(), "page", page, "size", size));
+			if (page < 0 || size < 1) {
+				return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
+			}
+
+			Page<Map<String, Object>> galleriesPage = galleryService.getOwnerGalleries(currentUser.getId(), status,
+					PageRequest.of(page, size));
+			List<Map<String, Object>> galleryDTOs = galleriesPage.getContent();
+
+			Map<String, Object> response = new HashMap<>(Map.of("success", true, "galleries", galleryDTOs, "total",
+					galleriesPage.getTotalElements(), "page", page, "size", size));
+			response.put("nextCursor", galleriesPage.hasNext() && galleriesPage.hasContent()
+					? CursorPage.encode((Long) galleryDTOs.get(galleryDTOs.size() - 1).get("id"))
+					: null);
+			return ResponseEntity.ok(response);
 		} catch (Exception e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("error", "Ошибка получения галерей: " + e.getMessage()));
@@ -186,7 +198,8 @@ public class GalleryOwnerController {
 	public ResponseEntity<?> getMyExhibitions(@RequestParam(value = "galleryId", required = false) Long galleryId,
 			@RequestParam(value = "status", required = false) String status,
 			@RequestParam(value = "page", defaultValue = "0") int page,
-			@RequestParam(value = "size", defaultValue = "20") int size) {
+			@RequestParam(value = "size", defaultValue = "20") int size,
+			@RequestParam(value = "cursor", required = false) String cursor) {
 
 		try {
 			User currentUser = userService.getCurrentUser();
@@ -206,32 +219,42 @@ public class GalleryOwnerController {
 
 			List<Long> ownerGalleryIds = ownerGalleries.stream().map(Gallery::getId).collect(Collectors.toList());
 
-			List<ExhibitionEvent> allExhibitions = exhibitionEventService.getAllExhibitionEvents();
-
-			List<ExhibitionEvent> ownerExhibitions = allExhibitions.stream()
-					.filter(exhibition -> ownerGalleryIds.contains(exhibition.getGallery().getId()))
-					.collect(Collectors.toList());
-
+			ExhibitionStatus exhibitionStatus = null;
 			if (status != null && !status.isEmpty()) {
 				try {
-					ExhibitionStatus exhibitionStatus = ExhibitionStatus.valueOf(status.toUpperCase());
-					ownerExhibitions = ownerExhibitions.stream()
-							.filter(exhibition -> exhibition.getStatus() == exhibitionStatus)
-							.collect(Collectors.toList());
+					exhibitionStatus = ExhibitionStatus.valueOf(status.toUpperCase());
 				} catch (IllegalArgumentException e) {
 					return ResponseEntity.badRequest().body(Map.of("error", "Некорректный статус выставки"));
 				}
 			}
 
-			int start = Math.min(page * size, ownerExhibitions.size());
-			int end = Math.min(start + size, ownerExhibitions.size());
-			List<ExhibitionEvent> paginatedExhibitions = ownerExhibitions.subList(start, end);
+			if (cursor != null) {
+				Long afterId = CursorPage.start(cursor);
+				if (afterId == null || size < 1) {
+					return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
+				}
+				return ResponseEntity.ok(exhibitionEventService
+						.getExhibitionEventsByGalleryIdsAfter(ownerGalleryIds, exhibitionStatus, afterId, size)
+						.toResponse("exhibitions", this::convertExhibitionToDTO, size));
+			}
+
+			if (page < 0 || size < 1) {
+				return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
+			}
 
-			List<Map<String, Object>> exhibitionDTOs = paginatedExhibitions.stream().map(this::convertExhibitionToDTO)
-					.collect(Collectors.toList());
+			Page<ExhibitionEvent> exhibitionsPage = exhibitionEventService.getExhibitionEventsByGalleryIds(
+					ownerGalleryIds, exhibitionStatus, PageRequest.of(page, size, Sort.by("id")));
 
-			return ResponseEntity.ok(Map.of("success", true, "exhibitions", exhibitionDTOs, "total",
-					ownerExhibitions.size(), "page", page, "size", size));
+			List<Map<String, Object>> exhibitionDTOs = exhibitionsPage.getContent().stream()
+					.map(this::convertExhibitionToDTO).collect(Collectors.toList());
+
+			Map<String, Object> response = new HashMap<>(Map.of("success", true, "exhibitions", exhibitionDTOs,
+					"total", exhibitionsPage.getTotalElements(), "page", page, "size", size));
+			response.put("nextCursor", exhibitionsPage.hasNext() && exhibitionsPage.hasContent()
+					? CursorPage.encode(
+							exhibitionsPage.getContent().get(exhibitionsPage.getNumberOfElements() - 1).getId())
+					: null);
+			return ResponseEntity.ok(response);
 		} catch (Exception e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("error", "Ошибка получения выставок: " + e.getMessage()));
@@ -420,11 +443,7 @@ public class GalleryOwnerController {
 						.body(Map.of("error", "Нет прав на просмотр стендов этой выставки"));
 			}
 
-			List<ExhibitionHallMap> hallMaps = exhibitionHallMapService.getExhibitionHallMapsByEventId(id);
-
-			List<ExhibitionStand> stands = hallMaps.stream()
-					.flatMap(hallMap -> exhibitionStandService.getExhibitionStandsByHallMapId(hallMap.getId()).stream())
-					.collect(Collectors.toList());
+			List<StandSummaryDto> stands = exhibitionStandService.getStandSummariesByEventId(id);
 
 			List<Map<String, Object>> standDTOs = stands.stream().map(this::convertStandToDTO)
 					.collect(Collectors.toList());
@@ -580,13 +599,7 @@ public class GalleryOwnerController {
 			}
 
 			if (newStatus == StandStatus.BOOKED) {
-				List<Booking> standBookings = bookingService.getAllBookings().stream()
-						.filter(booking -> booking.getExhibitionStand().getId().equals(standId)
-								&& (booking.getStatus() == BookingStatus.CONFIRMED
-										|| booking.getStatus() == BookingStatus.PENDING))
-						.collect(Collectors.toList());
-
-				if (!standBookings.isEmpty()) {
+				if (bookingService.hasActiveBooking(standId)) {
 					return ResponseEntity.badRequest().body(Map.of("error",
 							"Нельзя пометить стенд как BOOKED, так как на него есть активные бронирования"));
 				}
@@ -623,23 +636,15 @@ public class GalleryOwnerController {
 						.body(Map.of("error", "Нет прав на просмотр стендов этой выставки"));
 			}
 
-			List<ExhibitionHallMap> hallMaps = exhibitionHallMapService.getExhibitionHallMapsByEventId(id);
+			List<StandSummaryDto> eventStands = exhibitionStandService.getStandSummariesByEventId(id);
 
-			List<ExhibitionStand> availableStands = hallMaps.stream()
-					.flatMap(hallMap -> exhibitionStandService.getExhibitionStandsByHallMapId(hallMap.getId()).stream())
+			List<StandSummaryDto> availableStands = eventStands.stream()
 					.filter(stand -> stand.getStatus() == StandStatus.AVAILABLE).collect(Collectors.toList());
 
-			List<Booking> allBookings = bookingService.getAllBookings();
+			Set<Long> bookedStandIds = new HashSet<>(bookingService.getActiveBookedStandIds(id));
 
-			List<ExhibitionStand> bookedStands = hallMaps.stream()
-					.flatMap(hallMap -> exhibitionStandService.getExhibitionStandsByHallMapId(hallMap.getId()).stream())
-					.filter(stand -> {
-						boolean isBooked = allBookings.stream()
-								.anyMatch(booking -> booking.getExhibitionStand().getId().equals(stand.getId())
-										&& (booking.getStatus() == BookingStatus.CONFIRMED
-												|| booking.getStatus() == BookingStatus.PENDING));
-						return isBooked;
-					}).collect(Collectors.toList());
+			List<StandSummaryDto> bookedStands = eventStands.stream()
+					.filter(stand -> bookedStandIds.contains(stand.getId())).collect(Collectors.toList());
 
 			List<Map<String, Object>> availableStandDTOs = availableStands.stream().map(this::convertStandToDTO)
 					.collect(Collectors.toList());
@@ -766,45 +771,47 @@ public class GalleryOwnerController {
 	public ResponseEntity<?> getGalleryBookings(@RequestParam(value = "status", required = false) String status,
 			@RequestParam(value = "exhibitionId", required = false) Long exhibitionId,
 			@RequestParam(value = "page", defaultValue = "0") int page,
-			@RequestParam(value = "size", defaultValue = "20") int size) {
+			@RequestParam(value = "size", defaultValue = "20") int size,
+			@RequestParam(value = "cursor", required = false) String cursor) {
 		try {
 			User currentUser = userService.getCurrentUser();
 
-			List<Gallery> ownerGalleries = galleryService.getGalleriesByOwnerId(currentUser.getId());
-			List<Long> ownerGalleryIds = ownerGalleries.stream().map(Gallery::getId).collect(Collectors.toList());
-
-			List<Booking> allBookings = bookingService.getAllBookings();
-
-			List<Booking> galleryBookings = allBookings.stream().filter(booking -> {
-				ExhibitionEvent exhibition = booking.getExhibitionStand().getExhibitionHallMap().getExhibitionEvent();
-				return ownerGalleryIds.contains(exhibition.getGallery().getId());
-			}).collect(Collectors.toList());
-
-			if (exhibitionId != null) {
-				galleryBookings = galleryBookings.stream().filter(booking -> booking.getExhibitionStand()
-						.getExhibitionHallMap().getExhibitionEvent().getId().equals(exhibitionId))
-						.collect(Collectors.toList());
+			if (page < 0 || size < 1) {
+				return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
 			}
 
+			BookingStatus bookingStatus = null;
 			if (status != null && !status.isEmpty()) {
 				try {
-					BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
-					galleryBookings = galleryBookings.stream().filter(booking -> booking.getStatus() == bookingStatus)
-							.collect(Collectors.toList());
+					bookingStatus = BookingStatus.valueOf(status.toUpperCase());
 				} catch (IllegalArgumentException e) {
 					return ResponseEntity.badRequest().body(Map.of("error", "Некорректный статус бронирования"));
 				}
 			}
 
-			int start = Math.min(page * size, galleryBookings.size());
-			int end = Math.min(start + size, galleryBookings.size());
-			List<Booking> paginatedBookings = galleryBookings.subList(start, end);
+			if (cursor != null) {
+				Long afterId = CursorPage.start(cursor);
+				if (afterId == null || size < 1) {
+					return ResponseEntity.badRequest().body(Map.of("error", "Некорректные параметры пагинации"));
+				}
+				return ResponseEntity.ok(bookingService
+						.getBookingsByGalleryOwnerAfter(currentUser.getId(), exhibitionId, bookingStatus, afterId, size)
+						.toResponse("bookings", this::convertBookingToDTO, size));
+			}
+
+			Page<Booking> bookingsPage = bookingService.getBookingsByGalleryOwner(currentUser.getId(), exhibitionId,
+					bookingStatus, PageRequest.of(page, size, Sort.by("id")));
 
-			List<Map<String, Object>> bookingDTOs = paginatedBookings.stream().map(this::convertBookingToDTO)
+			List<Map<String, Object>> bookingDTOs = bookingsPage.getContent().stream().map(this::convertBookingToDTO)
 					.collect(Collectors.toList());
 
-			return ResponseEntity.ok(Map.of("success", true, "bookings", bookingDTOs, "total", galleryBookings.size(),
-					"page", page, "size", size));
+			Map<String, Object> response = new HashMap<>(Map.of("success", true, "bookings", bookingDTOs, "total",
+					bookingsPage.getTotalElements(), "totalPages", bookingsPage.getTotalPages(), "page", page, "size",
+					size));
+			response.put("nextCursor", bookingsPage.hasNext() && bookingsPage.hasContent()
+					? CursorPage.encode(bookingsPage.getContent().get(bookingsPage.getNumberOfElements() - 1).getId())
+					: null);
+			return ResponseEntity.ok(response);
 		} catch (Exception e) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body(Map.of("error", "Ошибка получения бронирований: " + e.getMessage()));
@@ -840,12 +847,7 @@ public class GalleryOwnerController {
 			}
 
 			Long standId = booking.getExhibitionStand().getId();
-			List<Booking> standBookings = bookingService.getAllBookings().stream()
-					.filter(b -> b.getExhibitionStand().getId().equals(standId))
-					.filter(b -> b.getStatus() == BookingStatus.CONFIRMED && !b.getId().equals(id))
-					.collect(Collectors.toList());
-
-			if (!standBookings.isEmpty()) {
+			if (bookingService.hasOtherConfirmedBooking(standId, id)) {
 				return ResponseEntity.badRequest().body(Map.of("error", "Стенд уже забронирован другим художником"));
 			}
 
@@ -1047,7 +1049,7 @@ public class GalleryOwnerController {
 		}
 	}
 
-	private Map<String, Object> convertBookingToDTO(Booking booking) {
+	Map<String, Object> convertBookingToDTO(Booking booking) {
 		Map<String, Object> dto = new HashMap<>();
 		dto.put("id", booking.getId());
 		dto.put("bookingDate", booking.getBookingDate());
@@ -1110,7 +1112,7 @@ public class GalleryOwnerController {
 		}
 	}
 
-	private Map<String, Object> convertGalleryToDTO(Gallery gallery) {
+	Map<String, Object> convertGalleryToDTO(Gallery gallery) {
 		Map<String, Object> dto = new HashMap<>();
 		dto.put("id", gallery.getId());
 		dto.put("name", gallery.getName());
@@ -1135,7 +1137,7 @@ public class GalleryOwnerController {
 		return dto;
 	}
 
-	private Map<String, Object> convertExhibitionToDTO(ExhibitionEvent exhibition) {
+	Map<String, Object> convertExhibitionToDTO(ExhibitionEvent exhibition) {
 		Map<String, Object> dto = new HashMap<>();
 		dto.put("id", exhibition.getId());
 		dto.put("title", exhibition.getTitle());
@@ -1149,7 +1151,7 @@ public class GalleryOwnerController {
 		return dto;
 	}
 
-	private Map<String, Object> convertHallMapToDTO(ExhibitionHallMap hallMap) {
+	Map<String, Object> convertHallMapToDTO(ExhibitionHallMap hallMap) {
 		Map<String, Object> dto = new HashMap<>();
 		dto.put("id", hallMap.getId());
 		dto.put("exhibitionId", hallMap.getExhibitionEvent().getId());
@@ -1159,7 +1161,7 @@ public class GalleryOwnerController {
 		return dto;
 	}
 
-	private Map<String, Object> convertStandToDTO(ExhibitionStand stand) {
+	Map<String, Object> convertStandToDTO(ExhibitionStand stand) {
 		Map<String, Object> dto = new HashMap<>();
 		dto.put("id", stand.getId());
 		dto.put("standNumber", stand.getStandNumber());
@@ -1173,6 +1175,20 @@ public class GalleryOwnerController {
 		return dto;
 	}
 
+	Map<String, Object> convertStandToDTO(StandSummaryDto stand) {
+		Map<String, Object> dto = new HashMap<>();
+		dto.put("id", stand.getId());
+		dto.put("standNumber", stand.getStandNumber());
+		dto.put("positionX", stand.getPositionX());
+		dto.put("positionY", stand.getPositionY());
+		dto.put("width", stand.getWidth());
+		dto.put("height", stand.getHeight());
+		dto.put("type", stand.getType().toString());
+		dto.put("status", stand.getStatus().toString());
+		dto.put("hallMapId", stand.getHallMapId());
+		return dto;
+	}
+
 	private List<Gallery> getGalleriesByOwnerId(Long ownerId) {
 		return galleryService.getAllGalleries().stream().filter(gallery -> {
 			if (gallery.getOwner() == null) {
@@ -0,0 +1,21 @@
+package artishok.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Строка выгрузки журнала активности. Заполняется JPQL-проекцией, поэтому
+ * не попадает в контекст персистентности и не держит память при потоковом чтении.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogExportRow {
+    private Long id;
+    private Long userId;
+    private String action;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,21 @@
+package artishok.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Строка выгрузки журнала аудита, заполняется JPQL-проекцией
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogExportRow {
+    private Long id;
+    private Long adminId;
+    private String action;
+    private Long targetEntityId;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,74 @@
+package artishok.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Страница keyset-пагинации: элементы и непрозрачный курсор следующей страницы.
+ * Курсор кодирует id последнего элемента, следующая страница читается условием id > курсора,
+ * поэтому глубина прокрутки не влияет на стоимость запроса.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private static final String PREFIX = "id:";
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Собирает страницу из выборки размером size + 1: лишний элемент означает, что есть продолжение
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int size, Function<T, Long> idExtractor) {
+        if (fetched.size() <= size) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, size);
+        return new CursorPage<>(items, encode(idExtractor.apply(items.get(size - 1))));
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ответ контроллера в keyset-режиме: элементы под ключом itemsKey, size и nextCursor
+     */
+    public <R> Map<String, Object> toResponse(String itemsKey, Function<T, R> mapper, int size) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put(itemsKey, items.stream().map(mapper).collect(Collectors.toList()));
+        response.put("size", size);
+        response.put("nextCursor", nextCursor);
+        return response;
+    }
+
+    /**
+     * Позиция начала выборки: пустой курсор (cursor=) открывает keyset-режим с первой страницы,
+     * null - поврежденный курсор
+     */
+    public static Long start(String cursor) {
+        return cursor.isBlank() ? Long.valueOf(0L) : decode(cursor);
+    }
+
+    /**
+     * id из курсора или null, если курсор поврежден
+     */
+    public static Long decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return value.startsWith(PREFIX) ? Long.valueOf(value.substring(PREFIX.length())) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package artishok.dto;
+
+import artishok.entities.enums.StandStatus;
+import artishok.entities.enums.StandType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Облегченное представление стенда для списков на карте зала.
+ * Заполняется JPQL-проекцией, поэтому связанные сущности не загружаются.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StandSummaryDto {
+    private Long id;
+    private String standNumber;
+    private Integer positionX;
+    private Integer positionY;
+    private Integer width;
+    private Integer height;
+    private StandType type;
+    private StandStatus status;
+    private Long hallMapId;
+    private String hallMapName;
+    private Long exhibitionId;
+    private String exhibitionTitle;
+}
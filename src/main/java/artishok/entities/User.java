@@ -11,8 +11,10 @@ import org.hibernate.type.SqlTypes;
 import org.hibernate.type.descriptor.jdbc.VarcharJdbcType;
 
 import artishok.entities.enums.UserRole;
+import artishok.security.UserStateListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -25,6 +27,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserStateListener.class)
 public class User implements UserDetails { // UserDetails - интерфейс Spring для всех безопасных пользователей
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,16 +1,21 @@
 package artishok.repositories;
 
+import artishok.dto.AuditLogExportRow;
 import artishok.entities.AdminAuditLog;
 import artishok.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AdminAuditLogRepository extends JpaRepository<AdminAuditLog, Long> {
@@ -32,6 +37,20 @@ public interface AdminAuditLogRepository extends JpaRepository<AdminAuditLog, Lo
     List<AdminAuditLog> findByTimestampBefore(LocalDateTime date);
 
     List<AdminAuditLog> findTop100ByOrderByTimestampDesc();
+
+    // Ограничение по времени отсекает партиции старше since
+    List<AdminAuditLog> findTop100ByTimestampAfterOrderByTimestampDesc(LocalDateTime since);
+
+    /**
+     * Потоковое чтение для выгрузки; вызывать внутри транзакции, иначе драйвер PostgreSQL
+     * игнорирует fetch size и читает весь результат в память
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new artishok.dto.AuditLogExportRow(l.id, l.admin.id, l.action, l.targetEntityId, l.timestamp) "
+            + "FROM AdminAuditLog l WHERE l.timestamp >= :from AND l.timestamp < :to "
+            + "AND (:action IS NULL OR l.action = :action) ORDER BY l.timestamp, l.id")
+    Stream<AuditLogExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("action") String action);
     
     List<AdminAuditLog> findByAdminIdAndAction(Long adminId, String action);
     
@@ -47,6 +66,10 @@ public interface AdminAuditLogRepository extends JpaRepository<AdminAuditLog, Lo
     List<Object[]> getMostFrequentActions();
     
     long countByAdminId(Long adminId);
+
+    // Сверка счетчиков статистики: [adminId, count]
+    @Query("SELECT l.admin.id, COUNT(l) FROM AdminAuditLog l GROUP BY l.admin.id")
+    List<Object[]> countGroupedByAdmin();
     
     long countByAction(String action);
 }
\ No newline at end of file
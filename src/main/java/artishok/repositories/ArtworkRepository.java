@@ -4,11 +4,14 @@ import artishok.entities.Artwork;
 import artishok.entities.Booking;
 import artishok.entities.enums.ArtworkStatus;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -26,6 +29,17 @@ public interface ArtworkRepository extends JpaRepository<Artwork, Long> {
 	@Query("SELECT a FROM Artwork a WHERE a.booking.artist.id = :artistId AND a.status = :status")
 	List<Artwork> findByArtistIdAndStatus(@Param("artistId") Long artistId, @Param("status") ArtworkStatus status);
 
+	@Query(value = "SELECT a FROM Artwork a JOIN FETCH a.booking b " +
+			"WHERE b.artist.id = :artistId AND a.status IN :statuses",
+			countQuery = "SELECT COUNT(a) FROM Artwork a WHERE a.booking.artist.id = :artistId AND a.status IN :statuses")
+	Page<Artwork> findPageByArtistId(@Param("artistId") Long artistId,
+			@Param("statuses") Collection<ArtworkStatus> statuses, Pageable pageable);
+
+	@Query("SELECT a FROM Artwork a JOIN FETCH a.booking b " +
+			"WHERE b.artist.id = :artistId AND a.status IN :statuses AND a.id > :afterId ORDER BY a.id")
+	List<Artwork> findByArtistIdAfter(@Param("artistId") Long artistId,
+			@Param("statuses") Collection<ArtworkStatus> statuses, @Param("afterId") Long afterId, Pageable pageable);
+
 	List<Artwork> findByTitleContainingIgnoreCase(String title);
 
 	List<Artwork> findByTechniqueContainingIgnoreCase(String technique);
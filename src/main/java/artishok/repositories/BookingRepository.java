@@ -3,12 +3,15 @@ package artishok.repositories;
 import artishok.entities.Booking;
 import artishok.entities.User;
 import artishok.entities.enums.BookingStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -40,10 +43,60 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.exhibitionStand.exhibitionHallMap.exhibitionEvent.gallery.id = :galleryId AND b.status = :status")
     List<Booking> findByGalleryIdAndStatus(@Param("galleryId") Long galleryId, @Param("status") BookingStatus status);
     
+    // Бронирования галерей владельца одной страницей: стенд, карта, выставка, галерея и художник
+    // подгружаются тем же запросом, фильтры и пагинация выполняются в БД
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.artist " +
+            "JOIN FETCH b.exhibitionStand s JOIN FETCH s.exhibitionHallMap m " +
+            "JOIN FETCH m.exhibitionEvent e JOIN FETCH e.gallery g " +
+            "WHERE g.id IN (SELECT go.gallery.id FROM GalleryOwnership go WHERE go.owner.id = :ownerId) " +
+            "AND (:eventId IS NULL OR e.id = :eventId) AND b.status IN :statuses",
+            countQuery = "SELECT COUNT(b) FROM Booking b " +
+            "JOIN b.exhibitionStand s JOIN s.exhibitionHallMap m JOIN m.exhibitionEvent e " +
+            "WHERE e.gallery.id IN (SELECT go.gallery.id FROM GalleryOwnership go WHERE go.owner.id = :ownerId) " +
+            "AND (:eventId IS NULL OR e.id = :eventId) AND b.status IN :statuses")
+    Page<Booking> findPageByGalleryOwner(@Param("ownerId") Long ownerId, @Param("eventId") Long eventId,
+            @Param("statuses") Collection<BookingStatus> statuses, Pageable pageable);
+
+    // Keyset-вариант той же выборки: следующая страница после бронирования с id = afterId
+    @Query("SELECT b FROM Booking b JOIN FETCH b.artist " +
+            "JOIN FETCH b.exhibitionStand s JOIN FETCH s.exhibitionHallMap m " +
+            "JOIN FETCH m.exhibitionEvent e JOIN FETCH e.gallery g " +
+            "WHERE g.id IN (SELECT go.gallery.id FROM GalleryOwnership go WHERE go.owner.id = :ownerId) " +
+            "AND (:eventId IS NULL OR e.id = :eventId) AND b.status IN :statuses AND b.id > :afterId " +
+            "ORDER BY b.id")
+    List<Booking> findByGalleryOwnerAfter(@Param("ownerId") Long ownerId, @Param("eventId") Long eventId,
+            @Param("statuses") Collection<BookingStatus> statuses, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT b FROM Booking b JOIN FETCH b.exhibitionStand s JOIN FETCH s.exhibitionHallMap m " +
+            "JOIN FETCH m.exhibitionEvent e JOIN FETCH e.gallery " +
+            "WHERE b.artist.id = :artistId AND b.status IN :statuses",
+            countQuery = "SELECT COUNT(b) FROM Booking b WHERE b.artist.id = :artistId AND b.status IN :statuses")
+    Page<Booking> findPageByArtistId(@Param("artistId") Long artistId,
+            @Param("statuses") Collection<BookingStatus> statuses, Pageable pageable);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.exhibitionStand s JOIN FETCH s.exhibitionHallMap m " +
+            "JOIN FETCH m.exhibitionEvent e JOIN FETCH e.gallery " +
+            "WHERE b.artist.id = :artistId AND b.status IN :statuses AND b.id > :afterId ORDER BY b.id")
+    List<Booking> findByArtistIdAfter(@Param("artistId") Long artistId,
+            @Param("statuses") Collection<BookingStatus> statuses, @Param("afterId") Long afterId, Pageable pageable);
+
     boolean existsByExhibitionStandIdAndStatus(Long standId, BookingStatus status);
+
+    // Проверки конфликтов бронирования: одна проба по индексу (exhibition_stand_id, status)
+    boolean existsByExhibitionStandIdAndStatusIn(Long standId, Collection<BookingStatus> statuses);
+
+    boolean existsByExhibitionStandIdAndStatusAndIdNot(Long standId, BookingStatus status, Long bookingId);
+
+    @Query("SELECT b.exhibitionStand.id FROM Booking b WHERE b.exhibitionStand.exhibitionHallMap.exhibitionEvent.id = :eventId AND b.status IN :statuses")
+    List<Long> findStandIdsByExhibitionEventIdAndStatusIn(@Param("eventId") Long eventId,
+            @Param("statuses") Collection<BookingStatus> statuses);
     
     long countByStatus(BookingStatus status);
     
+    // Сверка счетчиков статистики: [status, count]
+    @Query("SELECT b.status, COUNT(b) FROM Booking b GROUP BY b.status")
+    List<Object[]> countGroupedByStatus();
+    
     long countByArtist(User artist);
     
     List<Booking> findTop10ByOrderByBookingDateDesc();
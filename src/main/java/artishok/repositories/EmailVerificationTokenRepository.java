@@ -3,8 +3,12 @@ package artishok.repositories;
 import artishok.entities.EmailVerificationToken;
 import artishok.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -14,7 +18,18 @@ public interface EmailVerificationTokenRepository extends JpaRepository<EmailVer
     
     Optional<EmailVerificationToken> findByUser(User user);
     
-    void deleteByUser(User user);
+    // Удаление одним DELETE, без загрузки сущностей
+    @Modifying
+    @Query("DELETE FROM EmailVerificationToken t WHERE t.user = :user")
+    int deleteByUser(@Param("user") User user);
     
-    void deleteByUsed(Boolean used);
-}
\ No newline at end of file
+    @Modifying
+    @Query("DELETE FROM EmailVerificationToken t WHERE t.used = :used")
+    int deleteByUsed(@Param("used") Boolean used);
+    
+    // Очистка: использованные - после истечения срока, неиспользованные - спустя срок хранения
+    @Modifying
+    @Query("DELETE FROM EmailVerificationToken t WHERE (t.used = true AND t.expiryDate < :now) " +
+            "OR t.expiryDate < :unusedCutoff")
+    int deleteUsedOrExpired(@Param("now") LocalDateTime now, @Param("unusedCutoff") LocalDateTime unusedCutoff);
+}
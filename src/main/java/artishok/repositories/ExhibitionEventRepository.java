@@ -1,11 +1,15 @@
 package artishok.repositories;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import artishok.entities.ExhibitionEvent;
+import artishok.entities.enums.ExhibitionStatus;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +17,17 @@ public interface ExhibitionEventRepository extends JpaRepository<ExhibitionEvent
 
     @Query("SELECT e FROM ExhibitionEvent e WHERE e.gallery.id = :galleryId")
     List<ExhibitionEvent> findByGalleryId(@Param("galleryId") Long galleryId);
+
+    @Query(value = "SELECT e FROM ExhibitionEvent e JOIN FETCH e.gallery g " +
+            "WHERE g.id IN :galleryIds AND e.status IN :statuses",
+            countQuery = "SELECT COUNT(e) FROM ExhibitionEvent e WHERE e.gallery.id IN :galleryIds AND e.status IN :statuses")
+    Page<ExhibitionEvent> findPageByGalleryIds(@Param("galleryIds") Collection<Long> galleryIds,
+                                               @Param("statuses") Collection<ExhibitionStatus> statuses,
+                                               Pageable pageable);
+
+    @Query("SELECT e FROM ExhibitionEvent e JOIN FETCH e.gallery g " +
+            "WHERE g.id IN :galleryIds AND e.status IN :statuses AND e.id > :afterId ORDER BY e.id")
+    List<ExhibitionEvent> findByGalleryIdsAfter(@Param("galleryIds") Collection<Long> galleryIds,
+                                                @Param("statuses") Collection<ExhibitionStatus> statuses,
+                                                @Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,9 +1,43 @@
 package artishok.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import artishok.dto.StandSummaryDto;
 import artishok.entities.ExhibitionStand;
+import artishok.entities.enums.StandStatus;
+
+import java.util.List;
 
 @Repository
 public interface ExhibitionStandRepository extends JpaRepository<ExhibitionStand, Long> {
-}
\ No newline at end of file
+
+    List<ExhibitionStand> findByExhibitionHallMapId(Long hallMapId);
+
+    @Query("SELECT s FROM ExhibitionStand s WHERE s.exhibitionHallMap.exhibitionEvent.id = :eventId")
+    List<ExhibitionStand> findByExhibitionEventId(@Param("eventId") Long eventId);
+
+    // Проекции: только колонки, нужные для отображения стенда, без загрузки сущностей
+    @Query("SELECT new artishok.dto.StandSummaryDto(s.id, s.standNumber, s.positionX, s.positionY, s.width, s.height, " +
+            "s.type, s.status, m.id, m.name, e.id, e.title) " +
+            "FROM ExhibitionStand s JOIN s.exhibitionHallMap m JOIN m.exhibitionEvent e " +
+            "WHERE m.id = :hallMapId ORDER BY s.id")
+    List<StandSummaryDto> findSummariesByHallMapId(@Param("hallMapId") Long hallMapId);
+
+    @Query("SELECT new artishok.dto.StandSummaryDto(s.id, s.standNumber, s.positionX, s.positionY, s.width, s.height, " +
+            "s.type, s.status, m.id, m.name, e.id, e.title) " +
+            "FROM ExhibitionStand s JOIN s.exhibitionHallMap m JOIN m.exhibitionEvent e " +
+            "WHERE e.id = :eventId ORDER BY m.id, s.id")
+    List<StandSummaryDto> findSummariesByExhibitionEventId(@Param("eventId") Long eventId);
+
+    // Атомарная смена статуса стенда: обновится только строка в ожидаемом статусе,
+    // поэтому из нескольких конкурирующих запросов выигрывает ровно один
+    @Modifying
+    @Query("UPDATE ExhibitionStand s SET s.status = :newStatus WHERE s.id = :id AND s.status = :expectedStatus")
+    int updateStatusIfMatches(@Param("id") Long id,
+                              @Param("expectedStatus") StandStatus expectedStatus,
+                              @Param("newStatus") StandStatus newStatus);
+}
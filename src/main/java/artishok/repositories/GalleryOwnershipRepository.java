@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,4 +35,9 @@ public interface GalleryOwnershipRepository extends JpaRepository<GalleryOwnersh
     @Query("SELECT go FROM GalleryOwnership go " +
             "WHERE go.gallery.id = :galleryId AND go.isPrimary = true")
     Optional<GalleryOwnership> findPrimaryOwner(@Param("galleryId") Long galleryId);
+
+    // Основные владельцы сразу для набора галерей, вместе с пользователями
+    @Query("SELECT go FROM GalleryOwnership go JOIN FETCH go.owner " +
+            "WHERE go.gallery.id IN :galleryIds AND go.isPrimary = true")
+    List<GalleryOwnership> findPrimaryOwnersByGalleryIds(@Param("galleryIds") Collection<Long> galleryIds);
 }
\ No newline at end of file
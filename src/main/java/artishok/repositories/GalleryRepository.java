@@ -3,11 +3,14 @@ package artishok.repositories;
 import artishok.entities.Gallery;
 import artishok.entities.User;
 import artishok.entities.enums.GalleryStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,17 +25,38 @@ public interface GalleryRepository extends JpaRepository<Gallery, Long> {
 
     // Методы для получения галерей владельца (через gallery_ownership)
     @Query("SELECT g FROM Gallery g WHERE g.id IN " +
-            "(SELECT go.gallery.id FROM GalleryOwnership go WHERE go.owner.id = :ownerId)")
+            "(SELECT go.gallery.id FROM GalleryOwnership go WHERE go.owner.id = :ownerId) ORDER BY g.id")
     List<Gallery> findByOwnerId(@Param("ownerId") Long ownerId);
 
     @Query("SELECT g FROM Gallery g WHERE g.id IN " +
             "(SELECT go.gallery.id FROM GalleryOwnership go WHERE go.owner.id = :ownerId) " +
-            "AND g.status = :status")
+            "AND g.status = :status ORDER BY g.id")
     List<Gallery> findByOwnerIdAndStatus(@Param("ownerId") Long ownerId,
                                          @Param("status") GalleryStatus status);
 
+    @Query(value = "SELECT g FROM Gallery g WHERE g.id IN " +
+            "(SELECT go.gallery.id FROM GalleryOwnership go WHERE go.owner.id = :ownerId) " +
+            "AND g.status IN :statuses ORDER BY g.id",
+            countQuery = "SELECT COUNT(g) FROM Gallery g WHERE g.id IN " +
+            "(SELECT go.gallery.id FROM GalleryOwnership go WHERE go.owner.id = :ownerId) " +
+            "AND g.status IN :statuses")
+    Page<Gallery> findPageByOwnerId(@Param("ownerId") Long ownerId,
+                                    @Param("statuses") Collection<GalleryStatus> statuses,
+                                    Pageable pageable);
+
+    @Query("SELECT g FROM Gallery g WHERE g.id IN " +
+            "(SELECT go.gallery.id FROM GalleryOwnership go WHERE go.owner.id = :ownerId) " +
+            "AND g.status IN :statuses AND g.id > :afterId ORDER BY g.id")
+    List<Gallery> findByOwnerIdAfter(@Param("ownerId") Long ownerId,
+                                     @Param("statuses") Collection<GalleryStatus> statuses,
+                                     @Param("afterId") Long afterId, Pageable pageable);
+
     // Метод для получения основного владельца галереи
     @Query("SELECT go.owner FROM GalleryOwnership go " +
             "WHERE go.gallery.id = :galleryId AND go.isPrimary = true")
     Optional<User> findPrimaryOwnerByGalleryId(@Param("galleryId") Long galleryId);
+
+    // Сверка счетчиков статистики: [status, count]
+    @Query("SELECT g.status, COUNT(g) FROM Gallery g GROUP BY g.status")
+    List<Object[]> countGroupedByStatus();
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package artishok.repositories;
+
+import artishok.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    Optional<RevokedToken> findByTokenHash(String tokenHash);
+
+    // Повторный выход с тем же токеном не должен падать на уникальном индексе
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (token_hash, expires_at, revoked_at) " +
+            "VALUES (:tokenHash, :expiresAt, :revokedAt) ON CONFLICT (token_hash) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("tokenHash") String tokenHash, @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("revokedAt") LocalDateTime revokedAt);
+
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime revokedAfter, LocalDateTime expiresAfter);
+
+    @Query("SELECT r.tokenHash FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveHashes(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
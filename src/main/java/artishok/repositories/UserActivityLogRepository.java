@@ -1,15 +1,20 @@
 package artishok.repositories;
 
+import artishok.dto.ActivityLogExportRow;
 import artishok.entities.UserActivityLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserActivityLogRepository extends JpaRepository<UserActivityLog, Long> {
@@ -32,4 +37,18 @@ public interface UserActivityLogRepository extends JpaRepository<UserActivityLog
     
     List<UserActivityLog> findTop50ByOrderByTimestampDesc();
     
+    // Ограничение по времени отсекает партиции старше since
+    List<UserActivityLog> findTop50ByTimestampAfterOrderByTimestampDesc(LocalDateTime since);
+    
+    /**
+     * Потоковое чтение для выгрузки; вызывать внутри транзакции, иначе драйвер PostgreSQL
+     * игнорирует fetch size и читает весь результат в память
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new artishok.dto.ActivityLogExportRow(l.id, l.user.id, l.action, l.timestamp) "
+            + "FROM UserActivityLog l WHERE l.timestamp >= :from AND l.timestamp < :to "
+            + "AND (:action IS NULL OR l.action = :action) ORDER BY l.timestamp, l.id")
+    Stream<ActivityLogExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("action") String action);
+    
 }
\ No newline at end of file
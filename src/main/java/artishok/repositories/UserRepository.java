@@ -48,6 +48,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     long countByRole(UserRole role);
     long countByIsActiveTrue();
     
+    // Сверка счетчиков статистики: [role, isActive, count]
+    @Query("SELECT u.role, u.isActive, COUNT(u) FROM User u GROUP BY u.role, u.isActive")
+    List<Object[]> countGroupedByRoleAndActive();
+    
     // Получение последних зарегистрированных пользователей
     List<User> findTop10ByOrderByRegistrationDateDesc();
     @Query("SELECT u FROM User u WHERE (:role IS NULL OR u.role = :role) " +
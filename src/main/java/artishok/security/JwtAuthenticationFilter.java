@@ -1,5 +1,7 @@
 package artishok.security;
 
+import artishok.services.TokenBlacklistService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,7 +12,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,7 +25,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	@Autowired
     private JwtTokenUtil jwtTokenUtil;
 	@Autowired
-    private CustomUserDetailsService userDetailsService;
+    private UserStateCache userStateCache;
+	@Autowired
+    private TokenBlacklistService tokenBlacklistService;
 
     @Override
     protected void doFilterInternal(
@@ -41,19 +44,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String userEmail = jwtTokenUtil.getUsernameFromToken(jwt);
-
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-            if (jwtTokenUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+
+        if (SecurityContextHolder.getContext().getAuthentication() == null && !tokenBlacklistService.isTokenBlacklisted(jwt)) {
+            // Одна проверка подписи; пользователь восстанавливается из claims и кэша состояния, без SELECT на каждый запрос
+            final Claims claims = jwtTokenUtil.parseValidClaims(jwt);
+            final Long userId = claims != null ? claims.get("userId", Long.class) : null;
+
+            if (userId != null) {
+                userStateCache.get(userId)
+                        .filter(state -> state.active() && state.email().equals(claims.getSubject()))
+                        .ifPresent(state -> {
+                            JwtUserPrincipal principal = new JwtUserPrincipal(state.id(), state.email(), state.role());
+                            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                                    principal,
+                                    null,
+                                    principal.getAuthorities()
+                            );
+                            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                            SecurityContextHolder.getContext().setAuthentication(authToken);
+                        });
             }
         }
 
@@ -2,12 +2,15 @@ package artishok.security;
 
 import artishok.entities.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
@@ -18,14 +21,19 @@ import java.util.function.Function;
 @Component
 public class JwtTokenUtil {
 
-    @Value("${jwt.secret:artishok-secret-key-for-jwt-token-generation-2024}")
-    private String secret;
+    private static final String CLAIMS_ATTRIBUTE_PREFIX = JwtTokenUtil.class.getName() + ".claims:";
 
-    @Value("${jwt.expiration:86400000}")
-    private Long expiration;
+    private final Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Ключ и парсер неизменяемы и потокобезопасны, поэтому создаются один раз
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtTokenUtil(@Value("${jwt.secret:artishok-secret-key-for-jwt-token-generation-2024}") String secret,
+                        @Value("${jwt.expiration:86400000}") Long expiration) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public String generateToken(User user) {
@@ -39,7 +47,7 @@ public class JwtTokenUtil {
                 .setSubject(user.getEmail())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -60,16 +68,42 @@ public class JwtTokenUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Claims разбираются один раз за HTTP-запрос: повторные обращения к тому же токену
+     * в рамках запроса берут результат из атрибутов запроса
+     */
     private Claims getAllClaimsFromToken(String token) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        String attributeName = CLAIMS_ATTRIBUTE_PREFIX + token;
+        if (attributes != null) {
+            Object cached = attributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof Claims claims) {
+                return claims;
+            }
+        }
+
+        Claims claims;
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            claims = parser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             throw new RuntimeException("Невалидный токен", e);
         }
+
+        if (attributes != null) {
+            attributes.setAttribute(attributeName, claims, RequestAttributes.SCOPE_REQUEST);
+        }
+        return claims;
+    }
+
+    /**
+     * Разбор токена с одной проверкой подписи и срока действия; null для невалидного токена
+     */
+    public Claims parseValidClaims(String token) {
+        try {
+            return getAllClaimsFromToken(token);
+        } catch (RuntimeException e) {
+            return null;
+        }
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
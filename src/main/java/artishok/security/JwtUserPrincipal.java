@@ -0,0 +1,49 @@
+package artishok.security;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import artishok.entities.enums.UserRole;
+
+/**
+ * Пользователь, восстановленный из JWT без загрузки сущности User.
+ * Роль берется из кэша состояния пользователя, поэтому смена роли применяется без перевыпуска токена.
+ */
+public class JwtUserPrincipal implements UserDetails {
+    private final Long id;
+    private final String email;
+    private final UserRole role;
+
+    public JwtUserPrincipal(Long id, String email, UserRole role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
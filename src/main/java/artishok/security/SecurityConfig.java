@@ -52,6 +52,8 @@ public class SecurityConfig {
                                 "/api/images/test",  // Разрешаем тестовый endpoint
                                 "/api/files/**",     // Разрешаем доступ к файлам
                                 "/api/images/upload",
+                                "/api/images/upload-stream",
+                                "/api/images/srcset",
                                 "api/maps/**",
                                 "/swagger-ui/**", // Swagger UI
                                 "/v3/api-docs/**", // Swagger документация
@@ -0,0 +1,71 @@
+package artishok.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import artishok.entities.User;
+import artishok.entities.enums.UserRole;
+import artishok.repositories.UserRepository;
+
+/**
+ * Ограниченный LRU-кэш состояния пользователей (email, роль, активность) для проверки JWT.
+ * Запись живет не дольше ttl-seconds, при изменении или удалении пользователя
+ * она сбрасывается сразу (см. UserStateListener).
+ */
+@Component
+public class UserStateCache {
+
+    public record UserState(Long id, String email, UserRole role, boolean active, long loadedAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final Map<Long, UserState> states;
+
+    public UserStateCache(UserRepository userRepository,
+            @Value("${jwt.user-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${jwt.user-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.states = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserState> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Optional<UserState> get(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (states) {
+            UserState cached = states.get(userId);
+            if (cached != null && now - cached.loadedAt() < ttlMillis) {
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<User> userOpt = userRepository.findById(userId);
+        if (userOpt.isEmpty()) {
+            evict(userId);
+            return Optional.empty();
+        }
+
+        User user = userOpt.get();
+        UserState state = new UserState(user.getId(), user.getEmail(), user.getRole(),
+                user.getIsActive() != null && user.getIsActive(), now);
+        synchronized (states) {
+            states.put(userId, state);
+        }
+        return Optional.of(state);
+    }
+
+    public void evict(Long userId) {
+        synchronized (states) {
+            states.remove(userId);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package artishok.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import artishok.entities.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Сбрасывает кэш состояния пользователя при любом изменении или удалении записи users.
+ * Кэш берется лениво: слушатель создается вместе с EntityManagerFactory, раньше репозиториев.
+ */
+@Component
+public class UserStateListener {
+    private final ObjectProvider<UserStateCache> userStateCache;
+
+    public UserStateListener(ObjectProvider<UserStateCache> userStateCache) {
+        this.userStateCache = userStateCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        userStateCache.getObject().evict(user.getId());
+    }
+}
@@ -4,6 +4,12 @@ import artishok.entities.AdminAuditLog;
 import artishok.entities.User;
 import artishok.repositories.AdminAuditLogRepository;
 import artishok.repositories.UserRepository;
+import artishok.security.UserStateCache;
+import artishok.security.UserStateCache.UserState;
+import artishok.services.logging.AuditLogWriter;
+import artishok.services.logging.LogRetentionService;
+import artishok.services.logging.LogRetentionService.PurgeResult;
+import artishok.services.stats.StatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,6 +17,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,10 +28,20 @@ public class AdminAuditLogService {
 
 	private final AdminAuditLogRepository adminAuditLogRepository;
 	private final UserRepository userRepository;
-
-	public AdminAuditLogService(AdminAuditLogRepository adminAuditLogRepository, UserRepository userRepository) {
+	private final AuditLogWriter auditLogWriter;
+	private final UserStateCache userStateCache;
+	private final LogRetentionService logRetentionService;
+	private final StatisticsService statisticsService;
+
+	public AdminAuditLogService(AdminAuditLogRepository adminAuditLogRepository, UserRepository userRepository,
+			AuditLogWriter auditLogWriter, UserStateCache userStateCache, LogRetentionService logRetentionService,
+			StatisticsService statisticsService) {
 		this.adminAuditLogRepository = adminAuditLogRepository;
 		this.userRepository = userRepository;
+		this.auditLogWriter = auditLogWriter;
+		this.userStateCache = userStateCache;
+		this.logRetentionService = logRetentionService;
+		this.statisticsService = statisticsService;
 	}
 
 	@Transactional
@@ -54,35 +71,56 @@ public class AdminAuditLogService {
 	}
 
 
-	@Transactional
+	/**
+	 * Отложенная запись: событие фиксируется в локальном журнале и вставляется в БД пачкой
+	 * фоновым потоком. Роль проверяется по кэшу состояния пользователей, без загрузки User.
+	 */
 	public void logAdminAction(Long adminId, String action, Long targetEntityId) {
-		createLog(adminId, action, targetEntityId);
+		logBulkAction(adminId, action, List.of(requireTarget(targetEntityId)));
 	}
 
+	/**
+	 * Одно действие над множеством объектов: одна запись в журнал и пачки вставок вместо N запросов
+	 */
+	public void logBulkAction(Long adminId, String action, Collection<Long> targetEntityIds) {
+		requireAdmin(adminId);
+		targetEntityIds.forEach(this::requireTarget);
+		auditLogWriter.log(adminId, action, targetEntityIds);
+	}
 
-	@Transactional
 	public void logGalleryApproval(Long adminId, Long galleryId) {
-		createLog(adminId, "APPROVE_GALLERY", galleryId);
+		logAdminAction(adminId, "APPROVE_GALLERY", galleryId);
 	}
 
-	@Transactional
 	public void logGalleryRejection(Long adminId, Long galleryId) {
-		createLog(adminId, "REJECT_GALLERY", galleryId);
+		logAdminAction(adminId, "REJECT_GALLERY", galleryId);
 	}
 
-	@Transactional
 	public void logUserBlock(Long adminId, Long userId) {
-		createLog(adminId, "BLOCK_USER", userId);
+		logAdminAction(adminId, "BLOCK_USER", userId);
 	}
 
-	@Transactional
 	public void logUserUnblock(Long adminId, Long userId) {
-		createLog(adminId, "UNBLOCK_USER", userId);
+		logAdminAction(adminId, "UNBLOCK_USER", userId);
 	}
 
-	@Transactional
 	public void logContentModeration(Long adminId, Long contentId, String actionType) {
-		createLog(adminId, actionType + "_CONTENT", contentId);
+		logAdminAction(adminId, actionType + "_CONTENT", contentId);
+	}
+
+	private void requireAdmin(Long adminId) {
+		UserState state = userStateCache.get(adminId)
+				.orElseThrow(() -> new IllegalArgumentException("Администратор не найден"));
+		if (state.role() != artishok.entities.enums.UserRole.ADMIN) {
+			throw new IllegalArgumentException("Только администраторы могут выполнять действия с логированием");
+		}
+	}
+
+	private Long requireTarget(Long targetEntityId) {
+		if (targetEntityId == null) {
+			throw new IllegalArgumentException("Не указан объект действия");
+		}
+		return targetEntityId;
 	}
 
 	public Optional<AdminAuditLog> getLogById(Long id) {
@@ -111,8 +149,13 @@ public class AdminAuditLogService {
 		return adminAuditLogRepository.findByTimestampBetween(startDate, endDate);
 	}
 
+	/**
+	 * Сначала ищем в партициях последнего месяца, полный просмотр - только если там меньше 100 записей
+	 */
 	public List<AdminAuditLog> getRecentLogs() {
-		return adminAuditLogRepository.findTop100ByOrderByTimestampDesc();
+		List<AdminAuditLog> recent = adminAuditLogRepository
+				.findTop100ByTimestampAfterOrderByTimestampDesc(LocalDateTime.now().minusMonths(1));
+		return recent.size() == 100 ? recent : adminAuditLogRepository.findTop100ByOrderByTimestampDesc();
 	}
 	
 	public List<AdminAuditLog> getTodayLogs() {
@@ -141,7 +184,7 @@ public class AdminAuditLogService {
 
 		Map<String, Object> stats = new java.util.HashMap<>();
 		for (User admin : admins) {
-			long logCount = adminAuditLogRepository.countByAdminId(admin.getId());
+			long logCount = statisticsService.countAuditLogs(admin.getId());
 			stats.put(admin.getFullName() + " (ID: " + admin.getId() + ")", logCount);
 		}
 
@@ -153,11 +196,11 @@ public class AdminAuditLogService {
 		return adminAuditLogRepository.existsById(id);
 	}
 
-	@Transactional
-	public int deleteOldLogs(LocalDateTime cutoffDate) {
-		List<AdminAuditLog> oldLogs = adminAuditLogRepository.findByTimestampBefore(cutoffDate);
-		adminAuditLogRepository.deleteAll(oldLogs);
-		return oldLogs.size();
+	/**
+	 * Удаление порциями без загрузки строк, каждая порция коммитится отдельно
+	 */
+	public PurgeResult deleteOldLogs(LocalDateTime cutoffDate) {
+		return logRetentionService.purge(LogRetentionService.AUDIT_LOG, cutoffDate);
 	}
 
 	@Transactional
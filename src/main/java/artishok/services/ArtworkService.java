@@ -1,5 +1,6 @@
 package artishok.services;
 
+import artishok.dto.CursorPage;
 import artishok.entities.Artwork;
 import artishok.entities.Booking;
 import artishok.entities.enums.ArtworkStatus;
@@ -8,11 +9,13 @@ import artishok.repositories.ArtworkRepository;
 import artishok.repositories.BookingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -147,6 +150,24 @@ public class ArtworkService {
 		return artworkRepository.findByArtistIdAndStatus(artistId, status);
 	}
 
+	/**
+	 * Страница произведений художника; status необязателен
+	 */
+	public Page<Artwork> getArtworksByArtist(Long artistId, ArtworkStatus status, Pageable pageable) {
+		return artworkRepository.findPageByArtistId(artistId,
+				status != null ? EnumSet.of(status) : EnumSet.allOf(ArtworkStatus.class), pageable);
+	}
+
+	/**
+	 * Keyset-страница произведений художника после произведения afterId
+	 */
+	public CursorPage<Artwork> getArtworksByArtistAfter(Long artistId, ArtworkStatus status, Long afterId, int size) {
+		List<Artwork> artworks = artworkRepository.findByArtistIdAfter(artistId,
+				status != null ? EnumSet.of(status) : EnumSet.allOf(ArtworkStatus.class), afterId,
+				PageRequest.ofSize(size + 1));
+		return CursorPage.of(artworks, size, Artwork::getId);
+	}
+
 	public List<Artwork> searchArtworksByTitle(String title) {
 		return artworkRepository.findByTitleContainingIgnoreCase(title);
 	}
@@ -1,15 +1,22 @@
 package artishok.services;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import artishok.dto.CursorPage;
 import artishok.entities.Booking;
 import artishok.entities.ExhibitionStand;
 import artishok.entities.User;
 import artishok.entities.enums.BookingStatus;
+import artishok.entities.enums.StandStatus;
 import artishok.repositories.BookingRepository;
 import artishok.repositories.ExhibitionStandRepository;
 import artishok.repositories.UserRepository;
@@ -17,15 +24,19 @@ import jakarta.transaction.Transactional;
 
 @Service
 public class BookingService {
+	private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+
 	private final BookingRepository bookingRepository;
 	private final UserRepository userRepository;
 	private final ExhibitionStandRepository exhibitionStandRepository;
+	private final StandAvailabilityService standAvailabilityService;
 
 	public BookingService(BookingRepository bookingRepository, UserRepository userRepository,
-			ExhibitionStandRepository exhibitionStandRepository) {
+			ExhibitionStandRepository exhibitionStandRepository, StandAvailabilityService standAvailabilityService) {
 		this.bookingRepository = bookingRepository;
 		this.userRepository = userRepository;
 		this.exhibitionStandRepository = exhibitionStandRepository;
+		this.standAvailabilityService = standAvailabilityService;
 	}
 
 
@@ -34,26 +45,44 @@ public class BookingService {
         User artist = userRepository.findById(artistId)
                 .orElseThrow(() -> new IllegalArgumentException("Художник не найден"));
         
-        ExhibitionStand stand = exhibitionStandRepository.findById(standId)
-                .orElseThrow(() -> new IllegalArgumentException("Стенд не найден"));
+        if (!exhibitionStandRepository.existsById(standId)) {
+            throw new IllegalArgumentException("Стенд не найден");
+        }
         
         if (!artist.getRole().name().equals("ARTIST")) {
             throw new IllegalArgumentException("Бронирование может выполнять только художник");
         }
         
-        if (!stand.getStatus().name().equals("AVAILABLE")) {
-            throw new IllegalArgumentException("Стенд недоступен для бронирования");
+        return reserveStand(artist, standId);
+    }
+
+    /**
+     * Атомарное резервирование стенда. Стенд переводится из AVAILABLE в PENDING условным UPDATE,
+     * поэтому при одновременных запросах бронирование создает ровно один из них.
+     * Частичный уникальный индекс на bookings страхует от второй активной записи на уровне БД.
+     */
+    @Transactional
+    public Booking reserveStand(User artist, Long standId) {
+        if (hasActiveBooking(standId)) {
+            throw new IllegalArgumentException("Стенд уже забронирован");
         }
         
-        if (bookingRepository.existsByExhibitionStandIdAndStatus(standId, BookingStatus.CONFIRMED)) {
-            throw new IllegalArgumentException("Стенд уже забронирован");
+        int reserved = exhibitionStandRepository.updateStatusIfMatches(standId, StandStatus.AVAILABLE,
+                StandStatus.PENDING);
+        if (reserved == 0) {
+            throw new IllegalArgumentException("Стенд недоступен для бронирования");
         }
+        standAvailabilityService.standStatusChanged(standId, StandStatus.PENDING);
         
-        Booking booking = new Booking(stand, artist);
+        Booking booking = new Booking(exhibitionStandRepository.getReferenceById(standId), artist);
         booking.setBookingDate(LocalDateTime.now());
         booking.setStatus(BookingStatus.PENDING);
         
-        return bookingRepository.save(booking);
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Стенд уже забронирован");
+        }
     }
     
 
@@ -75,6 +104,7 @@ public class BookingService {
                         stand.setStatus(artishok.entities.enums.StandStatus.AVAILABLE);
                     }
                     exhibitionStandRepository.save(stand);
+                    standAvailabilityService.standStatusChanged(stand.getId(), stand.getStatus());
                     
                     return bookingRepository.save(booking);
                 })
@@ -127,6 +157,52 @@ public class BookingService {
     public List<Booking> getBookingsByGalleryAndStatus(Long galleryId, BookingStatus status) {
         return bookingRepository.findByGalleryIdAndStatus(galleryId, status);
     }
+
+    /**
+     * Страница бронирований всех галерей владельца; eventId и status необязательны
+     */
+    public Page<Booking> getBookingsByGalleryOwner(Long ownerId, Long eventId, BookingStatus status,
+            Pageable pageable) {
+        return bookingRepository.findPageByGalleryOwner(ownerId, eventId, statusesOf(status), pageable);
+    }
+
+    /**
+     * Keyset-страница бронирований галерей владельца после бронирования afterId
+     */
+    public CursorPage<Booking> getBookingsByGalleryOwnerAfter(Long ownerId, Long eventId, BookingStatus status,
+            Long afterId, int size) {
+        List<Booking> bookings = bookingRepository.findByGalleryOwnerAfter(ownerId, eventId, statusesOf(status),
+                afterId, PageRequest.ofSize(size + 1));
+        return CursorPage.of(bookings, size, Booking::getId);
+    }
+
+    /**
+     * Страница бронирований художника; status необязателен
+     */
+    public Page<Booking> getBookingsByArtist(Long artistId, BookingStatus status, Pageable pageable) {
+        return bookingRepository.findPageByArtistId(artistId, statusesOf(status), pageable);
+    }
+
+    /**
+     * Бронирования стендов выставки в статусах PENDING/CONFIRMED: только id стендов
+     */
+    public List<Long> getActiveBookedStandIds(Long eventId) {
+        return bookingRepository.findStandIdsByExhibitionEventIdAndStatusIn(eventId,
+                EnumSet.of(BookingStatus.PENDING, BookingStatus.CONFIRMED));
+    }
+
+    /**
+     * Keyset-страница бронирований художника после бронирования afterId
+     */
+    public CursorPage<Booking> getBookingsByArtistAfter(Long artistId, BookingStatus status, Long afterId, int size) {
+        List<Booking> bookings = bookingRepository.findByArtistIdAfter(artistId, statusesOf(status), afterId,
+                PageRequest.ofSize(size + 1));
+        return CursorPage.of(bookings, size, Booking::getId);
+    }
+
+    private static EnumSet<BookingStatus> statusesOf(BookingStatus status) {
+        return status != null ? EnumSet.of(status) : EnumSet.allOf(BookingStatus.class);
+    }
     
     public List<Booking> getActiveBookingsByArtist(Long artistId) {
         User artist = userRepository.findById(artistId)
@@ -155,6 +231,21 @@ public class BookingService {
     public boolean bookingExists(Long id) {
         return bookingRepository.existsById(id);
     }
+
+    /**
+     * Есть ли на стенде бронирование в статусе PENDING или CONFIRMED
+     */
+    public boolean hasActiveBooking(Long standId) {
+        return bookingRepository.existsByExhibitionStandIdAndStatusIn(standId, ACTIVE_STATUSES);
+    }
+
+    /**
+     * Подтверждено ли на стенде другое бронирование, кроме указанного
+     */
+    public boolean hasOtherConfirmedBooking(Long standId, Long bookingId) {
+        return bookingRepository.existsByExhibitionStandIdAndStatusAndIdNot(standId, BookingStatus.CONFIRMED,
+                bookingId);
+    }
     
     public List<Booking> getBookingsBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
         return bookingRepository.findByBookingDateBetween(startDate, endDate);
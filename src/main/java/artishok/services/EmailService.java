@@ -1,150 +1,83 @@
 package artishok.services;
 
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import artishok.services.mail.BulkMailSender;
+import artishok.services.mail.EmailTemplate;
+import artishok.services.mail.MailOutbox;
+import artishok.services.mail.MailTemplateRenderer;
 
 @Service
 public class EmailService {
     
     @Autowired
-    private JavaMailSender mailSender;
+    private MailOutbox mailOutbox;
+    
+    @Autowired
+    private MailTemplateRenderer mailTemplateRenderer;
     
-    @Value("${spring.mail.from:dashainastya@artishok.com}")
-    private String fromEmail;
+    @Autowired
+    private BulkMailSender bulkMailSender;
+    
+    @Value("${app.email.verification.expiration-hours:24}")
+    private int expirationHours;
     
     @Value("${app.email.verification.base-url:http://localhost:8080}")
     private String baseUrl;
     
+    public record VerificationEmail(String email, String token, String userName) {
+    }
+    
+    /**
+     * Ставит письмо подтверждения в очередь. Ошибка очереди пробрасывается, чтобы откатить
+     * транзакцию регистрации: пользователь без письма не сможет активировать аккаунт
+     */
     public void sendVerificationEmail(String toEmail, String verificationToken, String userName) {
-        String subject = "Подтверждение email для сервиса АРТиШОК";
-        //String verificationUrl = baseUrl + "/api/auth/verify-email?token=" + verificationToken;
-        //String verificationUrl = "http://localhost:5173" + "/login";
-        String verificationUrl = baseUrl + "/api/auth/verify-email?token=" + 
-                verificationToken + 
-                "&redirectTo=http://localhost:5173/login";
-        String htmlContent = createVerificationEmailHtml(userName, verificationUrl);
-        
         try {
-            sendHtmlEmail(toEmail, subject, htmlContent);
-        } catch (Exception e) {
-            System.out.println("Внимание: письмо не отправлено (режим разработки)");
+            sendTemplate(toEmail, EmailTemplate.VERIFICATION, verificationVariables(verificationToken, userName));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Не удалось поставить письмо подтверждения в очередь, повторите попытку позже", e);
         }
     }
     
+    /**
+     * Массовая рассылка писем подтверждения; возвращает число писем, поставленных в очередь
+     */
+    public int sendVerificationEmails(Stream<VerificationEmail> emails) {
+        return bulkMailSender.send(EmailTemplate.VERIFICATION, emails.map(email -> new BulkMailSender.Recipient(
+                email.email(), verificationVariables(email.token(), email.userName()))));
+    }
+    
     public void sendWelcomeEmail(String toEmail, String userName) {
-        String subject = "Добро пожаловать в АРТиШОК!";
-        String htmlContent = createWelcomeEmailHtml(userName, baseUrl);
-        
         try {
-            sendHtmlEmail(toEmail, subject, htmlContent);
+            sendTemplate(toEmail, EmailTemplate.WELCOME, Map.of("userName", Objects.requireNonNullElse(userName, ""), "baseUrl", baseUrl));
         } catch (Exception e) {
-            System.out.println("Внимание: приветственное письмо не отправлено");
+            System.out.println("Внимание: приветственное письмо не поставлено в очередь: " + e.getMessage());
         }
     }
     
-    private void sendHtmlEmail(String to, String subject, String htmlContent) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-        
-        helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
-        
-        mailSender.send(message);
-    }
-    
-    private String createVerificationEmailHtml(String userName, String verificationUrl) {
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; margin: 0; padding: 0; }
-                    .container { max-width: 600px; margin: 0 auto; background-color: #ffffff; }
-                    .header { background-color: #4a4a9c; color: white; padding: 30px; text-align: center; }
-                    .content { padding: 40px; }
-                    .button { display: inline-block; padding: 15px 30px; background-color: #4a4a9c; 
-                             color: white; text-decoration: none; border-radius: 5px; font-size: 16px; 
-                             font-weight: bold; margin: 20px 0; }
-                    .footer { background-color: #f5f5f5; padding: 20px; text-align: center; 
-                             color: #777; font-size: 12px; margin-top: 30px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h1>АРТиШОК</h1>
-                        <p>Платформа для удобного планирования выставок</p>
-                    </div>
-                    <div class="content">
-                        <h2>Здравствуйте, %s!</h2>
-                        <p>Спасибо за регистрацию в АРТиШОК!</p>
-                        <p>Для завершения регистрации, пожалуйста, подтвердите ваш email:</p>
-                        
-                        <div style="text-align: center; margin: 30px 0;">
-                            <a href="%s" class="button">Подтвердить Email</a>
-                        </div>
-                        
-                        <p>Или скопируйте ссылку в браузер:</p>
-                        <div style="background: #f5f5f5; padding: 15px; border-radius: 5px; word-break: break-all;">
-                            %s
-                        </div>
-                        
-                        <p><strong>Ссылка действительна 24 часа.</strong></p>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """, userName, verificationUrl, verificationUrl);
+    private Map<String, Object> verificationVariables(String verificationToken, String userName) {
+        //String verificationUrl = baseUrl + "/api/auth/verify-email?token=" + verificationToken;
+        //String verificationUrl = "http://localhost:5173" + "/login";
+        String verificationUrl = baseUrl + "/api/auth/verify-email?token=" + 
+                verificationToken + 
+                "&redirectTo=http://localhost:5173/login";
+        return Map.of(
+                "userName", Objects.requireNonNullElse(userName, ""),
+                "verificationUrl", verificationUrl,
+                "expirationHours", expirationHours);
     }
     
-    private String createWelcomeEmailHtml(String userName, String baseUrl) {
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; margin: 0; padding: 0; }
-                    .container { max-width: 600px; margin: 0 auto; background-color: #ffffff; }
-                    .header { background-color: #27ae60; color: white; padding: 30px; text-align: center; }
-                    .content { padding: 40px; }
-                    .feature { background: #f9f9f9; padding: 15px; margin: 10px 0; border-radius: 5px; 
-                              border-left: 4px solid #4a4a9c; }
-                    .footer { background-color: #f5f5f5; padding: 20px; text-align: center; 
-                             color: #777; font-size: 12px; margin-top: 30px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h1>Добро пожаловать в АРТиШОК!</h1>
-                        <p>Ваш аккаунт успешно активирован</p>
-                    </div>
-                    <div class="content">
-                        <h2>Приветствуем, %s!</h2>
-                        <p>Рады видеть вас в нашем сообществе художников и галерей!</p>
-                        
-                        <div style="text-align: center; margin: 30px 0;">
-                            <a href="%s" style="display: inline-block; padding: 15px 30px; 
-                               background-color: #4a4a9c; color: white; text-decoration: none; 
-                               border-radius: 5px; font-weight: bold;">
-                                Начать работу →
-                            </a>
-                        </div>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """, userName, baseUrl);
+    /**
+     * Письмо ставится в очередь в текущей транзакции, SMTP не задерживает запрос
+     */
+    private void sendTemplate(String to, EmailTemplate template, Map<String, Object> variables) {
+        mailOutbox.enqueue(to, template.getSubject(), mailTemplateRenderer.render(template, variables));
     }
-}
\ No newline at end of file
+}
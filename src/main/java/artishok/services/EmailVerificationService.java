@@ -6,15 +6,38 @@ import artishok.repositories.EmailVerificationTokenRepository;
 import artishok.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class EmailVerificationService {
+	/**
+	 * Новые токены для страницы неактивных пользователей с истекшим неиспользованным токеном.
+	 * SKIP LOCKED: параллельный запуск на другом узле берет другие строки.
+	 */
+	private static final String REGENERATE_EXPIRED_SQL = """
+			UPDATE email_verification_tokens t
+			SET token = gen_random_uuid()::text, expiry_date = ?
+			FROM users u
+			WHERE u.id = t.user_id AND t.id IN (
+			    SELECT e.id FROM email_verification_tokens e
+			    JOIN users eu ON eu.id = e.user_id
+			    WHERE eu.is_active = false AND e.used = false AND e.expiry_date < ? AND btrim(eu.email) <> ''
+			    ORDER BY e.id
+			    LIMIT ?
+			    FOR UPDATE OF e SKIP LOCKED)
+			RETURNING u.email, u.full_name, t.token
+			""";
 
 	@Autowired
 	private EmailVerificationTokenRepository tokenRepository;
@@ -25,9 +48,21 @@ public class EmailVerificationService {
 	@Autowired
 	private EmailService emailService;
 
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
 	@Value("${app.email.verification.expiration-hours:24}")
 	private int expirationHours;
 
+	@Value("${app.email.verification.unused-retention-days:30}")
+	private int unusedRetentionDays;
+
+	@Value("${app.email.verification.resend-page-size:500}")
+	private int resendPageSize;
+
 	@Transactional
 	public String createVerificationToken(User user) {
 
@@ -42,19 +77,20 @@ public class EmailVerificationService {
 		return token;
 	}
 
+	/**
+	 * Сохранение нового пользователя, токена и письма подтверждения одной транзакцией
+	 */
 	@Transactional
-	public void sendVerificationEmail(User user) {
-		try {
-			String token = createVerificationToken(user);
-			emailService.sendVerificationEmail(user.getEmail(), token, user.getFullName());
-		} catch (Exception e) {
+	public User registerUnverifiedUser(User user) {
+		User savedUser = userRepository.save(user);
+		sendVerificationEmail(savedUser);
+		return savedUser;
+	}
 
-			if (!user.getIsActive()) {
-				user.setIsActive(true);
-				userRepository.save(user);
-				System.out.println("Пользователь " + user.getEmail() + " автоматически активирован (режим разработки)");
-			}
-		}
+	@Transactional
+	public void sendVerificationEmail(User user) {
+		String token = createVerificationToken(user);
+		emailService.sendVerificationEmail(user.getEmail(), token, user.getFullName());
 	}
 
 	@Transactional
@@ -165,4 +201,60 @@ public class EmailVerificationService {
 
 		return tokenEntity.getUser();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Использованные токены удаляются после истечения срока (до него по ним открывается
+	 * страница после подтверждения), неиспользованные хранятся unused-retention-days,
+	 * чтобы их владельцам можно было повторить рассылку
+	 */
+	@Scheduled(cron = "${app.email.verification.sweep-cron:0 45 3 * * *}")
+	@Transactional
+	public void sweepTokens() {
+		LocalDateTime now = LocalDateTime.now();
+		int removed = tokenRepository.deleteUsedOrExpired(now, now.minusDays(unusedRetentionDays));
+		if (removed > 0) {
+			System.out.println("Verification token cleanup: removed " + removed + " tokens");
+		}
+	}
+
+	/**
+	 * Повторная рассылка неактивным пользователям, чей токен истек. Страница токенов
+	 * перевыпускается и ставится в очередь писем одной транзакцией, так что в памяти
+	 * не больше resend-page-size получателей, а сбой посреди рассылки не оставляет
+	 * новых токенов без писем: страница, где хоть одно письмо не поставлено в очередь,
+	 * откатывается и рассылка прерывается. Возвращает число перевыпущенных токенов.
+	 */
+	public int resendExpiredVerifications() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		// Перевыпущенные токены истекают позже этой отметки и в следующие страницы не попадают
+		Timestamp expiredBefore = Timestamp.valueOf(LocalDateTime.now());
+		int total = 0;
+		while (true) {
+			Integer page = transaction.execute(status -> resendExpiredPage(expiredBefore));
+			if (page == null || page == 0) {
+				break;
+			}
+			total += page;
+		}
+		System.out.println("Повторная рассылка подтверждений: перевыпущено токенов и поставлено писем " + total);
+		return total;
+	}
+
+	private int resendExpiredPage(Timestamp expiredBefore) {
+		Timestamp newExpiry = Timestamp.valueOf(LocalDateTime.now().plusHours(expirationHours));
+		List<EmailService.VerificationEmail> page = jdbcTemplate.query(REGENERATE_EXPIRED_SQL,
+				(rs, rowNum) -> new EmailService.VerificationEmail(rs.getString("email"), rs.getString("token"),
+						rs.getString("full_name")),
+				newExpiry, expiredBefore, resendPageSize);
+		if (page.isEmpty()) {
+			return 0;
+		}
+		int queued = emailService.sendVerificationEmails(page.stream());
+		if (queued != page.size()) {
+			// BulkMailSender пропускает письма с ошибкой отрисовки: токены страницы откатываются
+			throw new IllegalStateException("Повторная рассылка подтверждений: в очередь поставлено " + queued
+					+ " писем из " + page.size() + ", страница откачена");
+		}
+		return page.size();
+	}
+}
@@ -1,20 +1,30 @@
 package artishok.services;
 
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import artishok.dto.CursorPage;
 import artishok.entities.ExhibitionEvent;
+import artishok.entities.enums.ExhibitionStatus;
 import artishok.repositories.ExhibitionEventRepository;
 
 @Service
 @Transactional
 public class ExhibitionEventService {
     private final ExhibitionEventRepository exhibitionEventRepository;
+    private final StandAvailabilityService standAvailabilityService;
 
-    public ExhibitionEventService(ExhibitionEventRepository exhibitionEventRepository) {
+    public ExhibitionEventService(ExhibitionEventRepository exhibitionEventRepository,
+                                  StandAvailabilityService standAvailabilityService) {
         this.exhibitionEventRepository = exhibitionEventRepository;
+        this.standAvailabilityService = standAvailabilityService;
     }
 
     @Transactional(readOnly = true)
@@ -38,13 +48,44 @@ public class ExhibitionEventService {
         return exhibitionEventRepository.findByGalleryId(galleryId);
     }
 
+    /**
+     * Страница выставок указанных галерей; status необязателен
+     */
+    @Transactional(readOnly = true)
+    public Page<ExhibitionEvent> getExhibitionEventsByGalleryIds(Collection<Long> galleryIds,
+            ExhibitionStatus status, Pageable pageable) {
+        if (galleryIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        return exhibitionEventRepository.findPageByGalleryIds(galleryIds,
+                status != null ? EnumSet.of(status) : EnumSet.allOf(ExhibitionStatus.class), pageable);
+    }
+
+    /**
+     * Keyset-страница выставок указанных галерей после выставки afterId
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ExhibitionEvent> getExhibitionEventsByGalleryIdsAfter(Collection<Long> galleryIds,
+            ExhibitionStatus status, Long afterId, int size) {
+        if (galleryIds.isEmpty()) {
+            return CursorPage.of(List.of(), size, ExhibitionEvent::getId);
+        }
+        List<ExhibitionEvent> events = exhibitionEventRepository.findByGalleryIdsAfter(galleryIds,
+                status != null ? EnumSet.of(status) : EnumSet.allOf(ExhibitionStatus.class), afterId,
+                PageRequest.ofSize(size + 1));
+        return CursorPage.of(events, size, ExhibitionEvent::getId);
+    }
+
     @Transactional
     public ExhibitionEvent saveExhibitionEvent(ExhibitionEvent exhibitionEvent) {
-        return exhibitionEventRepository.save(exhibitionEvent);
+        ExhibitionEvent saved = exhibitionEventRepository.save(exhibitionEvent);
+        standAvailabilityService.invalidateEvent(saved.getId());
+        return saved;
     }
 
     @Transactional
     public void deleteExhibitionEvent(Long id) {
         exhibitionEventRepository.deleteById(id);
+        standAvailabilityService.invalidateEvent(id);
     }
 }
\ No newline at end of file
@@ -15,11 +15,14 @@ import artishok.repositories.ExhibitionEventRepository;
 public class ExhibitionHallMapService {
     private final ExhibitionEventRepository exhibitionEventRepository;
     private final ExhibitionHallMapRepository exhibitionHallMapRepository;
+    private final StandAvailabilityService standAvailabilityService;
 
     public ExhibitionHallMapService(ExhibitionHallMapRepository exhibitionHallMapRepository,
-                                    ExhibitionEventRepository exhibitionEventRepository) {
+                                    ExhibitionEventRepository exhibitionEventRepository,
+                                    StandAvailabilityService standAvailabilityService) {
         this.exhibitionHallMapRepository = exhibitionHallMapRepository;
         this.exhibitionEventRepository = exhibitionEventRepository;
+        this.standAvailabilityService = standAvailabilityService;
     }
 
     @Transactional(readOnly = true)
@@ -50,11 +53,15 @@ public class ExhibitionHallMapService {
 
     @Transactional
     public ExhibitionHallMap saveExhibitionHallMap(ExhibitionHallMap exhibitionHallMap) {
-        return exhibitionHallMapRepository.save(exhibitionHallMap);
+        ExhibitionHallMap saved = exhibitionHallMapRepository.save(exhibitionHallMap);
+        standAvailabilityService.invalidateEvent(saved.getExhibitionEvent().getId());
+        return saved;
     }
 
     @Transactional
     public void deleteExhibitionHallMap(Long id) {
+        exhibitionHallMapRepository.findById(id)
+                .ifPresent(map -> standAvailabilityService.invalidateEvent(map.getExhibitionEvent().getId()));
         exhibitionHallMapRepository.deleteById(id);
     }
 
@@ -63,6 +70,7 @@ public class ExhibitionHallMapService {
         ExhibitionEvent event = exhibitionEventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Событие не найдено с ID: " + eventId));
         map.setExhibitionEvent(event);
+        standAvailabilityService.invalidateEvent(eventId);
         return exhibitionHallMapRepository.save(map);
     }
 }
\ No newline at end of file
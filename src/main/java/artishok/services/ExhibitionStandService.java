@@ -3,15 +3,19 @@ package artishok.services;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.stereotype.Service;
+import artishok.dto.StandSummaryDto;
 import artishok.entities.ExhibitionStand;
 import artishok.repositories.ExhibitionStandRepository;
 
 @Service
 public class ExhibitionStandService {
     private final ExhibitionStandRepository exhibitionStandRepository;
+    private final StandAvailabilityService standAvailabilityService;
 
-    public ExhibitionStandService(ExhibitionStandRepository exhibitionStandRepository) {
+    public ExhibitionStandService(ExhibitionStandRepository exhibitionStandRepository,
+                                  StandAvailabilityService standAvailabilityService) {
         this.exhibitionStandRepository = exhibitionStandRepository;
+        this.standAvailabilityService = standAvailabilityService;
     }
 
     public List<ExhibitionStand> getAllExhibitionStands() {
@@ -23,16 +27,29 @@ public class ExhibitionStandService {
     }
 
     public List<ExhibitionStand> getExhibitionStandsByHallMapId(Long hallMapId) {
-        return exhibitionStandRepository.findAll().stream()
-                .filter(stand -> stand.getExhibitionHallMap().getId().equals(hallMapId))
-                .toList();
+        return exhibitionStandRepository.findByExhibitionHallMapId(hallMapId);
+    }
+
+    public List<ExhibitionStand> getExhibitionStandsByEventId(Long eventId) {
+        return exhibitionStandRepository.findByExhibitionEventId(eventId);
+    }
+
+    public List<StandSummaryDto> getStandSummariesByHallMapId(Long hallMapId) {
+        return exhibitionStandRepository.findSummariesByHallMapId(hallMapId);
+    }
+
+    public List<StandSummaryDto> getStandSummariesByEventId(Long eventId) {
+        return exhibitionStandRepository.findSummariesByExhibitionEventId(eventId);
     }
 
     public ExhibitionStand saveExhibitionStand(ExhibitionStand exhibitionStand) {
-        return exhibitionStandRepository.save(exhibitionStand);
+        ExhibitionStand saved = exhibitionStandRepository.save(exhibitionStand);
+        standAvailabilityService.standSaved(saved);
+        return saved;
     }
 
     public void deleteExhibitionStand(Long id) {
         exhibitionStandRepository.deleteById(id);
+        standAvailabilityService.standDeleted(id);
     }
 }
@@ -1,5 +1,6 @@
 package artishok.services;
 
+import artishok.dto.CursorPage;
 import artishok.entities.Gallery;
 import artishok.entities.GalleryOwnership;
 import artishok.entities.User;
@@ -11,11 +12,15 @@ import artishok.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +31,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional
 public class GalleryService {
+	private static final int OWNER_BATCH_SIZE = 1000;
+
 	@Autowired
 	private GalleryRepository galleryRepository;
 
@@ -37,19 +44,19 @@ public class GalleryService {
 	public List<Gallery> getAllGalleries() {
 		List<Gallery> galleries = galleryRepository.findAll();
 
-		galleries.forEach(this::loadOwnerAndDateForGallery);
+		loadOwnersAndDates(galleries);
 		return galleries;
 	}
 
 	public Optional<Gallery> getGalleryById(Long id) {
 		Optional<Gallery> galleryOpt = galleryRepository.findById(id);
-		galleryOpt.ifPresent(this::loadOwnerAndDateForGallery);
+		galleryOpt.ifPresent(gallery -> loadOwnersAndDates(List.of(gallery)));
 		return galleryOpt;
 	}
 
 	public Gallery saveGallery(Gallery gallery) {
 		Gallery savedGallery = galleryRepository.save(gallery);
-		loadOwnerAndDateForGallery(savedGallery);
+		loadOwnersAndDates(List.of(savedGallery));
 		return savedGallery;
 	}
 
@@ -99,7 +106,7 @@ public class GalleryService {
 
 		galleryOwnershipRepository.save(ownership);
 
-		loadOwnerAndDateForGallery(savedGallery);
+		loadOwnersAndDates(List.of(savedGallery));
 
 		return convertToDTO(savedGallery);
 	}
@@ -109,29 +116,37 @@ public class GalleryService {
 	}
 
 	/**
-	 * Получить галереи владельца
+	 * Страница галерей владельца; всего галерей - из count-запроса
 	 */
-	public List<Map<String, Object>> getOwnerGalleries(Long ownerId, String status, int page, int size) {
-		List<Gallery> galleries;
+	public Page<Map<String, Object>> getOwnerGalleries(Long ownerId, String status, Pageable pageable) {
+		Page<Gallery> galleries = galleryRepository.findPageByOwnerId(ownerId, ownerStatuses(status), pageable);
+		loadOwnersAndDates(galleries.getContent());
+
+		return galleries.map(this::convertToDTO);
+	}
+
+	/**
+	 * Keyset-страница галерей владельца после галереи afterId
+	 */
+	public CursorPage<Map<String, Object>> getOwnerGalleriesAfter(Long ownerId, String status, Long afterId,
+			int size) {
+		CursorPage<Gallery> galleries = CursorPage.of(galleryRepository.findByOwnerIdAfter(ownerId,
+				ownerStatuses(status), afterId, PageRequest.ofSize(size + 1)), size, Gallery::getId);
+		loadOwnersAndDates(galleries.getItems());
+
+		return new CursorPage<>(galleries.getItems().stream().map(this::convertToDTO).collect(Collectors.toList()),
+				galleries.getNextCursor());
+	}
 
+	private static EnumSet<GalleryStatus> ownerStatuses(String status) {
 		if (status != null && !status.isEmpty()) {
 			try {
-				GalleryStatus galleryStatus = GalleryStatus.valueOf(status.toUpperCase());
-				galleries = galleryRepository.findByOwnerIdAndStatus(ownerId, galleryStatus);
+				return EnumSet.of(GalleryStatus.valueOf(status.toUpperCase()));
 			} catch (IllegalArgumentException e) {
-				galleries = galleryRepository.findByOwnerId(ownerId);
+				// Неизвестный статус игнорируется
 			}
-		} else {
-			galleries = galleryRepository.findByOwnerId(ownerId);
 		}
-
-		galleries.forEach(this::loadOwnerAndDateForGallery);
-
-		int start = Math.min(page * size, galleries.size());
-		int end = Math.min(start + size, galleries.size());
-		List<Gallery> paginatedGalleries = galleries.subList(start, end);
-
-		return paginatedGalleries.stream().map(this::convertToDTO).collect(Collectors.toList());
+		return EnumSet.allOf(GalleryStatus.class);
 	}
 
 	/**
@@ -173,7 +188,7 @@ public class GalleryService {
 		}
 
 		Gallery updatedGallery = galleryRepository.save(gallery);
-		loadOwnerAndDateForGallery(updatedGallery);
+		loadOwnersAndDates(List.of(updatedGallery));
 
 		return convertToDTO(updatedGallery);
 	}
@@ -192,7 +207,7 @@ public class GalleryService {
 			ownerGalleries = galleryRepository.findByOwnerId(ownerId);
 		}
 
-		ownerGalleries.forEach(this::loadOwnerAndDateForGallery);
+		loadOwnersAndDates(ownerGalleries);
 
 		stats.put("totalGalleries", ownerGalleries.size());
 		stats.put("pendingGalleries", countByStatus(ownerGalleries, GalleryStatus.PENDING));
@@ -209,18 +224,28 @@ public class GalleryService {
 	}
 
 	/**
-	 * Загрузить владельца и дату создания для галереи
+	 * Загрузить владельцев и даты создания для набора галерей. Основные владения
+	 * читаются одним запросом на каждые OWNER_BATCH_SIZE галерей, а не двумя на галерею.
 	 */
-	private void loadOwnerAndDateForGallery(Gallery gallery) {
+	private void loadOwnersAndDates(List<Gallery> galleries) {
+		if (galleries.isEmpty()) {
+			return;
+		}
 
-		Optional<User> primaryOwnerOpt = galleryRepository.findPrimaryOwnerByGalleryId(gallery.getId());
-		if (primaryOwnerOpt.isPresent()) {
-			gallery.setOwner(primaryOwnerOpt.get());
+		List<Long> galleryIds = galleries.stream().map(Gallery::getId).distinct().collect(Collectors.toList());
+		Map<Long, GalleryOwnership> primaryOwnerships = new HashMap<>();
+		for (int from = 0; from < galleryIds.size(); from += OWNER_BATCH_SIZE) {
+			List<Long> batch = galleryIds.subList(from, Math.min(from + OWNER_BATCH_SIZE, galleryIds.size()));
+			galleryOwnershipRepository.findPrimaryOwnersByGalleryIds(batch)
+					.forEach(ownership -> primaryOwnerships.putIfAbsent(ownership.getGallery().getId(), ownership));
 		}
 
-		Optional<GalleryOwnership> ownershipOpt = galleryOwnershipRepository.findPrimaryOwner(gallery.getId());
-		if (ownershipOpt.isPresent()) {
-			gallery.setCreatedAt(ownershipOpt.get().getCreatedAt());
+		for (Gallery gallery : galleries) {
+			GalleryOwnership ownership = primaryOwnerships.get(gallery.getId());
+			if (ownership != null) {
+				gallery.setOwner(ownership.getOwner());
+				gallery.setCreatedAt(ownership.getCreatedAt());
+			}
 		}
 	}
 
@@ -261,7 +286,7 @@ public class GalleryService {
 	 */
 	public List<Gallery> getGalleriesByStatus(GalleryStatus status) {
 		List<Gallery> galleries = galleryRepository.findByStatus(status);
-		galleries.forEach(this::loadOwnerAndDateForGallery);
+		loadOwnersAndDates(galleries);
 		return galleries;
 	}
 
@@ -292,7 +317,7 @@ public class GalleryService {
 		}
 
 		Gallery updatedGallery = galleryRepository.save(gallery);
-		loadOwnerAndDateForGallery(updatedGallery);
+		loadOwnersAndDates(List.of(updatedGallery));
 		return updatedGallery;
 	}
 
@@ -301,7 +326,7 @@ public class GalleryService {
 	 */
 	public List<Gallery> searchGalleriesByName(String name) {
 		List<Gallery> galleries = galleryRepository.findByNameContainingIgnoreCase(name);
-		galleries.forEach(this::loadOwnerAndDateForGallery);
+		loadOwnersAndDates(galleries);
 		return galleries;
 	}
 
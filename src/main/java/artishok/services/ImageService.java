@@ -1,42 +1,99 @@
 package artishok.services;
 
+import artishok.services.images.ImageDerivativeService;
+import artishok.services.storage.SizeLimitedInputStream;
 import artishok.services.storage.StorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ImageService {
+    private static final long MAX_IMAGE_SIZE = 10 * 1024 * 1024; // 10MB
+    private static final String MAX_SIZE_MESSAGE = "Размер файла не должен превышать 10MB";
+    private static final String MIME_MESSAGE = "Файл должен быть изображением (JPEG, PNG, GIF, WEBP, BMP)";
+    // Допустимые MIME типы и расширения для них; image/svg+xml не принимается: SVG может содержать скрипты
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp",
+            "image/bmp", ".bmp");
+    
     @Autowired
     private StorageService storageService;
     
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+    
     /**
      * Основной метод загрузки изображения
      */
     public String uploadImage(MultipartFile file, String category, Long entityId) {
         validateImage(file);
+        String mimeType = imageMimeType(file.getContentType());
         
         // Генерируем уникальное имя файла
         String fileName = generateFileName(file.getOriginalFilename(), category, entityId);
         
         // Загружаем в хранилище
-        String objectName = storageService.uploadFile(file, fileName, file.getContentType());
+        String objectName = storageService.uploadFile(file, fileName, mimeType);
+        
+        // Уменьшенные копии строятся в фоне
+        imageDerivativeService.submit(objectName);
         
         // Получаем публичный URL
         return storageService.getFileUrl(objectName);
     }
     
+    /**
+     * Потоковая загрузка: байты тела запроса идут в хранилище без временного файла.
+     * size = -1 для запроса без Content-Length, лимит 10MB тогда проверяется при чтении.
+     */
+    public String uploadImageStream(InputStream stream, long size, String contentType, String originalFilename,
+            String category, Long entityId) {
+        if (size == 0) {
+            throw new IllegalArgumentException("Файл не может быть пустым");
+        }
+        validateImage(size, contentType, originalFilename);
+        String mimeType = imageMimeType(contentType);
+        
+        // Без имени файла расширение берется из MIME типа: image/png; charset=x -> .png
+        String fileName = generateFileName(originalFilename != null ? originalFilename
+                : "image" + EXTENSIONS.get(mimeType), category, entityId);
+        InputStream limited = new SizeLimitedInputStream(stream, MAX_IMAGE_SIZE, MAX_SIZE_MESSAGE);
+        String objectName = storageService.uploadStream(limited, size, fileName, mimeType);
+        imageDerivativeService.submit(objectName);
+        return storageService.getFileUrl(objectName);
+    }
+    
+    /**
+     * MIME тип -> srcset уменьшенных копий. Копии строятся асинхронно, готовность - isDerivativesReady.
+     */
+    public Map<String, String> getSrcset(String imageUrl) {
+        return imageDerivativeService.srcset(extractObjectNameFromUrl(imageUrl));
+    }
+    
+    public boolean isDerivativesReady(String imageUrl) {
+        return imageDerivativeService.isReady(extractObjectNameFromUrl(imageUrl));
+    }
+    
     /**
      * Генерация имени файла с правильной структурой
      */
-    private String generateFileName(String originalFilename, String category, Long entityId) {
+    String generateFileName(String originalFilename, String category, Long entityId) {
         // Извлекаем расширение
         String extension = "";
         if (originalFilename != null && originalFilename.contains(".")) {
@@ -61,33 +118,55 @@ public class ImageService {
     /**
      * Валидация изображения
      */
-    private void validateImage(MultipartFile file) {
+    void validateImage(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("Файл не может быть пустым");
         }
-        
+        validateImage(file.getSize(), file.getContentType(), file.getOriginalFilename());
+    }
+    
+    /**
+     * Проверки по заявленным размеру, MIME типу и имени; size = -1 - размер неизвестен
+     */
+    void validateImage(long size, String contentType, String originalFilename) {
         // Проверяем размер (макс. 10MB)
-        long maxSize = 10 * 1024 * 1024; // 10MB
-        if (file.getSize() > maxSize) {
-            throw new IllegalArgumentException("Размер файла не должен превышать 10MB");
+        if (size > MAX_IMAGE_SIZE) {
+            throw new IllegalArgumentException(MAX_SIZE_MESSAGE);
         }
         
         // Проверяем MIME тип
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new IllegalArgumentException("Файл должен быть изображением (JPEG, PNG, GIF)");
-        }
+        imageMimeType(contentType);
         
         // Проверяем расширение
-        String originalFilename = file.getOriginalFilename();
         if (originalFilename != null) {
-            String extension = originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase();
+            int dot = originalFilename.lastIndexOf(".");
+            String extension = dot >= 0 ? originalFilename.substring(dot).toLowerCase() : "";
             if (!extension.matches("\\.(jpg|jpeg|png|gif|webp|bmp)$")) {
                 throw new IllegalArgumentException("Неподдерживаемый формат файла");
             }
         }
     }
     
+    /**
+     * MIME тип без параметров из списка допустимых: "image/PNG; charset=x" -> "image/png"
+     */
+    static String imageMimeType(String contentType) {
+        if (contentType == null) {
+            throw new IllegalArgumentException(MIME_MESSAGE);
+        }
+        String mimeType;
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            mimeType = (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase(Locale.ROOT);
+        } catch (InvalidMediaTypeException e) {
+            throw new IllegalArgumentException(MIME_MESSAGE);
+        }
+        if (!EXTENSIONS.containsKey(mimeType)) {
+            throw new IllegalArgumentException(MIME_MESSAGE);
+        }
+        return mimeType;
+    }
+    
     /**
      * Удаление изображения по URL
      */
@@ -96,6 +175,7 @@ public class ImageService {
             // Извлекаем имя объекта из URL
             String objectName = extractObjectNameFromUrl(imageUrl);
             storageService.deleteFile(objectName);
+            imageDerivativeService.derivativeNames(objectName).forEach(storageService::deleteFile);
             System.out.println("Image deleted: ");
         } catch (Exception e) {
         	System.out.println("Failed to delete image: ");
@@ -0,0 +1,352 @@
+package artishok.services;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import artishok.dto.StandSummaryDto;
+import artishok.entities.ExhibitionEvent;
+import artishok.entities.ExhibitionHallMap;
+import artishok.entities.ExhibitionStand;
+import artishok.entities.enums.BookingStatus;
+import artishok.entities.enums.ExhibitionStatus;
+import artishok.entities.enums.StandStatus;
+import artishok.repositories.BookingRepository;
+import artishok.repositories.ExhibitionEventRepository;
+import artishok.repositories.ExhibitionHallMapRepository;
+
+/**
+ * Индекс доступности стендов в памяти, по одному снимку на выставку.
+ * Для каждого статуса хранится битовая маска позиций стендов, поэтому список
+ * доступных стендов отдается без запросов к БД. Снимок строится лениво при
+ * первом обращении и обновляется точечно после коммита изменений стенда.
+ * Кэш ограничен: не больше max-events снимков (LRU), снимок без обращений дольше idle-minutes
+ * удаляется фоновой очисткой, завершенные выставки не кэшируются.
+ */
+@Service
+public class StandAvailabilityService {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+
+    private final ExhibitionEventRepository exhibitionEventRepository;
+    private final ExhibitionHallMapRepository exhibitionHallMapRepository;
+    private final BookingRepository bookingRepository;
+
+    private final long idleMillis;
+    // Порядок доступа для LRU; все обращения под блокировкой events
+    private final Map<Long, EventStands> events;
+    private final Map<Long, Long> standToEvent = new ConcurrentHashMap<>();
+    // Счетчик изменений: снимок, при сборке которого что-то поменялось, в кэш не попадает
+    private final AtomicLong modifications = new AtomicLong();
+
+    public StandAvailabilityService(ExhibitionEventRepository exhibitionEventRepository,
+            ExhibitionHallMapRepository exhibitionHallMapRepository, BookingRepository bookingRepository,
+            @Value("${app.stands.cache.max-events:500}") int maxEvents,
+            @Value("${app.stands.cache.idle-minutes:30}") long idleMinutes) {
+        this.exhibitionEventRepository = exhibitionEventRepository;
+        this.exhibitionHallMapRepository = exhibitionHallMapRepository;
+        this.bookingRepository = bookingRepository;
+        this.idleMillis = idleMinutes * 60_000;
+        this.events = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, EventStands> eldest) {
+                if (size() <= maxEvents) {
+                    return false;
+                }
+                forgetStands(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Снимок стендов выставки. Пустой результат означает, что выставки не существует.
+     */
+    public Optional<EventStands> getEventStands(Long eventId) {
+        synchronized (events) {
+            EventStands cached = events.get(eventId);
+            if (cached != null) {
+                cached.lastAccess = System.currentTimeMillis();
+                return Optional.of(cached);
+            }
+        }
+
+        long stamp = modifications.get();
+        Optional<EventStands> loaded = load(eventId);
+        loaded.ifPresent(eventStands -> {
+            // Стенды завершенной выставки больше не бронируются, держать ее снимок в памяти незачем
+            if (eventStands.getStatus() == ExhibitionStatus.FINISHED) {
+                return;
+            }
+            synchronized (events) {
+                if (modifications.get() == stamp) {
+                    eventStands.positions.keySet().forEach(standId -> standToEvent.put(standId, eventId));
+                    events.put(eventId, eventStands);
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Изменение статуса стенда (бронирование, подтверждение, отмена)
+     */
+    public void standStatusChanged(Long standId, StandStatus status) {
+        modifications.incrementAndGet();
+        afterCommit(() -> {
+            modifications.incrementAndGet();
+            EventStands eventStands = cachedByStand(standId);
+            if (eventStands != null) {
+                eventStands.updateStatus(standId, status);
+            }
+        });
+    }
+
+    /**
+     * Сохранение стенда: известный стенд обновляется на месте, новый сбрасывает снимок выставки
+     */
+    public void standSaved(ExhibitionStand stand) {
+        modifications.incrementAndGet();
+        Long hallMapId = stand.getExhibitionHallMap().getId();
+        Long knownEventId = standToEvent.get(stand.getId());
+        EventStands known = knownEventId != null ? cached(knownEventId) : null;
+        boolean inPlace = known != null && hallMapId.equals(known.hallMapOf(stand.getId()));
+        Long eventId = inPlace ? knownEventId : stand.getExhibitionHallMap().getExhibitionEvent().getId();
+        StandSummaryDto summary = new StandSummaryDto(stand.getId(), stand.getStandNumber(), stand.getPositionX(),
+                stand.getPositionY(), stand.getWidth(), stand.getHeight(), stand.getType(), stand.getStatus(),
+                hallMapId, null, eventId, null);
+        afterCommit(() -> {
+            modifications.incrementAndGet();
+            EventStands eventStands = cached(eventId);
+            if (inPlace && eventStands != null && eventStands.update(summary)) {
+                return;
+            }
+            if (knownEventId != null) {
+                evictEvent(knownEventId);
+            }
+            evictEvent(eventId);
+        });
+    }
+
+    public void standDeleted(Long standId) {
+        modifications.incrementAndGet();
+        afterCommit(() -> {
+            modifications.incrementAndGet();
+            Long eventId = standToEvent.remove(standId);
+            if (eventId != null) {
+                evictEvent(eventId);
+            }
+        });
+    }
+
+    /**
+     * Сброс снимка выставки при изменении самой выставки или ее карт зала
+     */
+    public void invalidateEvent(Long eventId) {
+        if (eventId == null) {
+            return;
+        }
+        modifications.incrementAndGet();
+        afterCommit(() -> {
+            modifications.incrementAndGet();
+            evictEvent(eventId);
+        });
+    }
+
+    /**
+     * Удаляет снимки, к которым не обращались дольше idle-minutes
+     */
+    @Scheduled(fixedDelayString = "${app.stands.cache.sweep-interval-ms:60000}",
+            initialDelayString = "${app.stands.cache.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleMillis;
+        synchronized (events) {
+            Iterator<Map.Entry<Long, EventStands>> it = events.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, EventStands> entry = it.next();
+                if (entry.getValue().lastAccess < threshold) {
+                    forgetStands(entry.getKey(), entry.getValue());
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private EventStands cached(Long eventId) {
+        synchronized (events) {
+            return events.get(eventId);
+        }
+    }
+
+    private EventStands cachedByStand(Long standId) {
+        Long eventId = standToEvent.get(standId);
+        return eventId != null ? cached(eventId) : null;
+    }
+
+    private void evictEvent(Long eventId) {
+        synchronized (events) {
+            EventStands removed = events.remove(eventId);
+            if (removed != null) {
+                forgetStands(eventId, removed);
+            }
+        }
+    }
+
+    private void forgetStands(Long eventId, EventStands eventStands) {
+        // Стенд мог уже перейти в снимок другой выставки - его привязку не трогаем
+        eventStands.positions.keySet().forEach(standId -> standToEvent.remove(standId, eventId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Optional<EventStands> load(Long eventId) {
+        Optional<ExhibitionEvent> eventOpt = exhibitionEventRepository.findById(eventId);
+        if (eventOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        ExhibitionEvent event = eventOpt.get();
+
+        List<ExhibitionHallMap> hallMaps = exhibitionHallMapRepository.findByExhibitionEventIdWithStands(eventId);
+        Set<Long> reservedStandIds = new HashSet<>(
+                bookingRepository.findStandIdsByExhibitionEventIdAndStatusIn(eventId, ACTIVE_STATUSES));
+
+        List<StandSummaryDto> stands = new ArrayList<>();
+        for (ExhibitionHallMap hallMap : hallMaps) {
+            for (ExhibitionStand stand : hallMap.getExhibitionStands()) {
+                StandStatus status = stand.getStatus();
+                // Стенды с активным бронированием, созданным до атомарного резервирования, считаем занятыми
+                if (status == StandStatus.AVAILABLE && reservedStandIds.contains(stand.getId())) {
+                    status = StandStatus.PENDING;
+                }
+                stands.add(new StandSummaryDto(stand.getId(), stand.getStandNumber(), stand.getPositionX(),
+                        stand.getPositionY(), stand.getWidth(), stand.getHeight(), stand.getType(), status,
+                        hallMap.getId(), hallMap.getName(), eventId, event.getTitle()));
+            }
+        }
+        return Optional.of(new EventStands(eventId, event.getTitle(), event.getStatus(), stands));
+    }
+
+    /**
+     * Снимок стендов одной выставки: плотный массив стендов и битовые маски по статусам
+     */
+    public static final class EventStands {
+        private final Long eventId;
+        private final String title;
+        private final ExhibitionStatus status;
+        private final List<StandSummaryDto> stands;
+        private final Map<Long, Integer> positions;
+        private final Map<StandStatus, BitSet> byStatus = new EnumMap<>(StandStatus.class);
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        EventStands(Long eventId, String title, ExhibitionStatus status, List<StandSummaryDto> stands) {
+            this.eventId = eventId;
+            this.title = title;
+            this.status = status;
+            this.stands = stands;
+            this.positions = new HashMap<>(stands.size() * 2);
+            for (StandStatus standStatus : StandStatus.values()) {
+                byStatus.put(standStatus, new BitSet(stands.size()));
+            }
+            for (int i = 0; i < stands.size(); i++) {
+                StandSummaryDto stand = stands.get(i);
+                positions.put(stand.getId(), i);
+                byStatus.get(stand.getStatus()).set(i);
+            }
+        }
+
+        public Long getEventId() {
+            return eventId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public ExhibitionStatus getStatus() {
+            return status;
+        }
+
+        public synchronized List<StandSummaryDto> getStands(StandStatus standStatus) {
+            BitSet bits = byStatus.get(standStatus);
+            if (bits.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<StandSummaryDto> result = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                StandSummaryDto stand = stands.get(i);
+                result.add(new StandSummaryDto(stand.getId(), stand.getStandNumber(), stand.getPositionX(),
+                        stand.getPositionY(), stand.getWidth(), stand.getHeight(), stand.getType(), stand.getStatus(),
+                        stand.getHallMapId(), stand.getHallMapName(), stand.getExhibitionId(),
+                        stand.getExhibitionTitle()));
+            }
+            return result;
+        }
+
+        synchronized Long hallMapOf(Long standId) {
+            Integer position = positions.get(standId);
+            return position != null ? stands.get(position).getHallMapId() : null;
+        }
+
+        public synchronized int count(StandStatus standStatus) {
+            return byStatus.get(standStatus).cardinality();
+        }
+
+        synchronized void updateStatus(Long standId, StandStatus standStatus) {
+            Integer position = positions.get(standId);
+            if (position == null) {
+                return;
+            }
+            StandSummaryDto stand = stands.get(position);
+            byStatus.get(stand.getStatus()).clear(position);
+            byStatus.get(standStatus).set(position);
+            stand.setStatus(standStatus);
+        }
+
+        /**
+         * Обновляет геометрию и статус известного стенда; false, если стенд в снимке отсутствует
+         * или перенесен на другую карту зала
+         */
+        synchronized boolean update(StandSummaryDto changed) {
+            Integer position = positions.get(changed.getId());
+            if (position == null || !stands.get(position).getHallMapId().equals(changed.getHallMapId())) {
+                return false;
+            }
+            StandSummaryDto stand = stands.get(position);
+            stand.setStandNumber(changed.getStandNumber());
+            stand.setPositionX(changed.getPositionX());
+            stand.setPositionY(changed.getPositionY());
+            stand.setWidth(changed.getWidth());
+            stand.setHeight(changed.getHeight());
+            stand.setType(changed.getType());
+            updateStatus(changed.getId(), changed.getStatus());
+            return true;
+        }
+    }
+}
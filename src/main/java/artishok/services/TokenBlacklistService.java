@@ -1,21 +1,97 @@
 package artishok.services;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.scheduling.annotation.Scheduled;
 
-import java.util.HashSet;
+import artishok.security.JwtTokenUtil;
+import artishok.services.revocation.BloomFilter;
+import artishok.services.revocation.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Черный список отозванных JWT. Хранится SHA-256 токена и момент истечения из claim exp:
+ * после него токен и так невалиден, и запись удаляется очередью по сроку истечения.
+ *
+ * Источник истины - общее хранилище (TokenRevocationStore), поэтому отзыв переживает рестарт
+ * и виден всем узлам. Перед ним стоит локальный фильтр Блума со всеми действующими отзывами:
+ * отрицательный ответ (почти все запросы) отдается без выхода из JVM. Подтвержденные отзывы
+ * кэшируются в ConcurrentHashMap, новые отзывы других узлов подтягиваются опросом дельты.
+ */
 @Service
 public class TokenBlacklistService {
 
-	private final Set<String> blacklistedTokens = Collections.synchronizedSet(new HashSet<>());
+	private record Entry(String hash, long expiresAt) {
+	}
+
+	private final JwtTokenUtil jwtTokenUtil;
+	private final TokenRevocationStore revocationStore;
+	private final int maxEntries;
+	private final long bloomExpectedInsertions;
+	private final double bloomFalsePositiveRate;
+	private final long pollLookbackMillis;
+
+	private volatile BloomFilter bloomFilter;
+	// Добавление отзыва - под чтением, подмена фильтра - под записью. Отзывы, добавленные
+	// во время пересборки, копятся в addedDuringRebuild и переносятся в новый фильтр при подмене,
+	// иначе отзыв, попавший в старый фильтр после чтения хранилища, пропал бы из нового
+	private final ReadWriteLock filterLock = new ReentrantReadWriteLock();
+	private Set<String> addedDuringRebuild;
+	private volatile LocalDateTime lastPoll = LocalDateTime.now();
+
+	private final Map<String, Long> blacklistedTokens = new ConcurrentHashMap<>();
+	private final PriorityBlockingQueue<Entry> expirations = new PriorityBlockingQueue<>(64,
+			Comparator.comparingLong(Entry::expiresAt));
+
+	public TokenBlacklistService(JwtTokenUtil jwtTokenUtil, TokenRevocationStore revocationStore,
+			@Value("${jwt.blacklist.max-entries:100000}") int maxEntries,
+			@Value("${jwt.revocation.bloom.expected-insertions:1000000}") long bloomExpectedInsertions,
+			@Value("${jwt.revocation.bloom.false-positive-rate:0.001}") double bloomFalsePositiveRate,
+			@Value("${jwt.revocation.poll-lookback-ms:120000}") long pollLookbackMillis) {
+		this.jwtTokenUtil = jwtTokenUtil;
+		this.revocationStore = revocationStore;
+		this.maxEntries = maxEntries;
+		this.bloomExpectedInsertions = bloomExpectedInsertions;
+		this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+		this.pollLookbackMillis = pollLookbackMillis;
+	}
+
+	@PostConstruct
+	public void loadRevocations() {
+		lastPoll = LocalDateTime.now();
+		rebuildBloomFilter();
+	}
 
 	public void blacklistToken(String token) {
-		blacklistedTokens.add(token);
+		Claims claims = jwtTokenUtil.parseValidClaims(token);
+		if (claims == null || claims.getExpiration() == null) {
+			// Невалидный или истекший токен и так не пройдет проверку
+			return;
+		}
 
-		System.out.println("Token blacklisted: " + token.substring(0, Math.min(20, token.length())) + "...");
+		String hash = hash(token);
+		long expiresAt = claims.getExpiration().getTime();
+
+		revocationStore.revoke(hash, toLocalDateTime(expiresAt));
+		addRevocation(hash, expiresAt);
 	}
 
 	public boolean isTokenBlacklisted(String token) {
@@ -23,11 +99,37 @@ public class TokenBlacklistService {
 			return false;
 		}
 
-		return blacklistedTokens.contains(token);
+		String hash = hash(token);
+		if (!bloomFilter.mightContain(hash)) {
+			return false;
+		}
+
+		long now = System.currentTimeMillis();
+		Long expiresAt = blacklistedTokens.get(hash);
+		if (expiresAt != null) {
+			return expiresAt > now;
+		}
+
+		// Ложное срабатывание фильтра либо запись, вытесненная из локального кэша
+		try {
+			Optional<LocalDateTime> stored = revocationStore.findExpiry(hash);
+			if (stored.isEmpty()) {
+				return false;
+			}
+			long storedExpiresAt = toEpochMillis(stored.get());
+			cacheRevocation(hash, storedExpiresAt);
+			return storedExpiresAt > now;
+		} catch (RuntimeException e) {
+			// Хранилище недоступно: фильтр считает токен возможно отозванным, поэтому не пропускаем его
+			System.err.println("Ошибка проверки отзыва токена: " + e.getMessage());
+			return true;
+		}
 	}
 
 	public void removeFromBlacklist(String token) {
-		blacklistedTokens.remove(token);
+		String hash = hash(token);
+		revocationStore.remove(hash);
+		blacklistedTokens.remove(hash);
 	}
 
 	public int getBlacklistSize() {
@@ -35,19 +137,62 @@ public class TokenBlacklistService {
 
 	}
 
+	/**
+	 * Очищает только локальный кэш; отзывы в хранилище и фильтре Блума сохраняются
+	 */
 	public void clearBlacklist() {
 		blacklistedTokens.clear();
-
+		expirations.clear();
 	}
 
 	public boolean isTokenValid(String token) {
 		return !isTokenBlacklisted(token);
 	}
 
-	@Scheduled(fixedRate = 3600000)
+	@Scheduled(fixedRateString = "${jwt.blacklist.cleanup-interval-ms:60000}")
 	public void cleanupExpiredTokens() {
+		long now = System.currentTimeMillis();
+		int removed = 0;
+
+		Entry head;
+		while ((head = expirations.poll()) != null) {
+			if (head.expiresAt() > now) {
+				expirations.add(head);
+				break;
+			}
+			if (blacklistedTokens.remove(head.hash(), head.expiresAt())) {
+				removed++;
+			}
+		}
+
+		if (removed > 0) {
+			System.out.println("Blacklist cleanup: removed " + removed + ", current size: " + getBlacklistSize());
+		}
+	}
+
+	/**
+	 * Опрос отзывов, сделанных другими узлами. Окно перекрывается на poll-lookback-ms,
+	 * чтобы не потерять записи из транзакций, закоммиченных позже начала предыдущего опроса.
+	 */
+	@Scheduled(fixedDelayString = "${jwt.revocation.poll-interval-ms:5000}")
+	public void pollRevocations() {
+		LocalDateTime pollStartedAt = LocalDateTime.now();
+		LocalDateTime since = lastPoll.minusNanos(pollLookbackMillis * 1_000_000);
+
+		revocationStore.findRevokedSince(since)
+				.forEach((hash, expiresAt) -> addRevocation(hash, toEpochMillis(expiresAt)));
+		lastPoll = pollStartedAt;
+	}
 
-		System.out.println("Blacklist cleanup executed. Current size: " + getBlacklistSize());
+	/**
+	 * Удаление истекших отзывов из хранилища и пересборка фильтра Блума, который не умеет удалять
+	 */
+	@Scheduled(fixedRateString = "${jwt.revocation.rebuild-interval-ms:3600000}",
+			initialDelayString = "${jwt.revocation.rebuild-interval-ms:3600000}")
+	public void purgeAndRebuild() {
+		int purged = revocationStore.deleteExpired();
+		rebuildBloomFilter();
+		System.out.println("Revocation store cleanup: purged " + purged + " expired tokens");
 	}
 
 	public boolean anyTokenBlacklisted(String... tokens) {
@@ -58,4 +203,92 @@ public class TokenBlacklistService {
 		}
 		return false;
 	}
-}
\ No newline at end of file
+
+	private synchronized void rebuildBloomFilter() {
+		Set<String> added = ConcurrentHashMap.newKeySet();
+		filterLock.writeLock().lock();
+		try {
+			addedDuringRebuild = added;
+		} finally {
+			filterLock.writeLock().unlock();
+		}
+
+		BloomFilter rebuilt = null;
+		try {
+			List<String> activeHashes = revocationStore.findActiveHashes();
+			rebuilt = BloomFilter.create(Math.max(bloomExpectedInsertions, activeHashes.size() * 2L),
+					bloomFalsePositiveRate);
+			activeHashes.forEach(rebuilt::put);
+		} finally {
+			filterLock.writeLock().lock();
+			try {
+				if (rebuilt != null) {
+					// Локальные отзывы, чья запись в хранилище могла быть не видна снимку
+					blacklistedTokens.keySet().forEach(rebuilt::put);
+					added.forEach(rebuilt::put);
+					bloomFilter = rebuilt;
+				}
+				addedDuringRebuild = null;
+			} finally {
+				filterLock.writeLock().unlock();
+			}
+		}
+	}
+
+	private void addRevocation(String hash, long expiresAt) {
+		filterLock.readLock().lock();
+		try {
+			bloomFilter.put(hash);
+			if (addedDuringRebuild != null) {
+				addedDuringRebuild.add(hash);
+			}
+			cacheRevocation(hash, expiresAt);
+		} finally {
+			filterLock.readLock().unlock();
+		}
+	}
+
+	private void cacheRevocation(String hash, long expiresAt) {
+		while (blacklistedTokens.size() >= maxEntries) {
+			if (!evictSoonestExpiring()) {
+				break;
+			}
+		}
+
+		if (blacklistedTokens.put(hash, expiresAt) == null) {
+			expirations.add(new Entry(hash, expiresAt));
+		}
+	}
+
+	private static LocalDateTime toLocalDateTime(long epochMillis) {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+	}
+
+	private static long toEpochMillis(LocalDateTime dateTime) {
+		return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * При переполнении локального кэша вытесняется запись, истекающая раньше всех.
+	 * Отзыв при этом не теряется: фильтр Блума отправит проверку такого токена в хранилище.
+	 */
+	private boolean evictSoonestExpiring() {
+		Entry head = expirations.poll();
+		if (head == null) {
+			return false;
+		}
+		if (blacklistedTokens.remove(head.hash(), head.expiresAt())) {
+			System.err.println("Локальный кэш отзывов переполнен, вытеснена запись со сроком " + head.expiresAt());
+		}
+		return true;
+	}
+
+	private static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 недоступен", e);
+		}
+	}
+}
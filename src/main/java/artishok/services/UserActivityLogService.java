@@ -4,6 +4,9 @@ import artishok.entities.UserActivityLog;
 import artishok.entities.User;
 import artishok.repositories.UserActivityLogRepository;
 import artishok.repositories.UserRepository;
+import artishok.services.logging.ActivityLogWriter;
+import artishok.services.logging.LogRetentionService;
+import artishok.services.logging.LogRetentionService.PurgeResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,11 +21,17 @@ public class UserActivityLogService {
     
     private final UserActivityLogRepository userActivityLogRepository;
     private final UserRepository userRepository;
+    private final ActivityLogWriter activityLogWriter;
+    private final LogRetentionService logRetentionService;
     
     public UserActivityLogService(UserActivityLogRepository userActivityLogRepository,
-                                 UserRepository userRepository) {
+                                 UserRepository userRepository,
+                                 ActivityLogWriter activityLogWriter,
+                                 LogRetentionService logRetentionService) {
         this.userActivityLogRepository = userActivityLogRepository;
         this.userRepository = userRepository;
+        this.activityLogWriter = activityLogWriter;
+        this.logRetentionService = logRetentionService;
     }
     
     @Transactional
@@ -40,34 +49,32 @@ public class UserActivityLogService {
         return userActivityLogRepository.save(log);
     }
     
-    @Transactional
+    /**
+     * Асинхронная запись: событие ставится в буфер и пишется фоновым потоком пачкой,
+     * вне транзакции вызывающего
+     */
     public void logUserAction(Long userId, String action) {
-        createLog(userId, action);
+        activityLogWriter.log(userId, action);
     }
     
-    @Transactional
     public void logLogin(Long userId) {
-        createLog(userId, "LOGIN");
+        logUserAction(userId, "LOGIN");
     }
     
-    @Transactional
     public void logLogout(Long userId) {
-        createLog(userId, "LOGOUT");
+        logUserAction(userId, "LOGOUT");
     }
     
-    @Transactional
     public void logProfileUpdate(Long userId) {
-        createLog(userId, "UPDATE_PROFILE");
+        logUserAction(userId, "UPDATE_PROFILE");
     }
     
-    @Transactional
     public void logBookingCreation(Long userId) {
-        createLog(userId, "CREATE_BOOKING");
+        logUserAction(userId, "CREATE_BOOKING");
     }
     
-    @Transactional
     public void logArtworkCreation(Long userId) {
-        createLog(userId, "CREATE_ARTWORK");
+        logUserAction(userId, "CREATE_ARTWORK");
     }
     
     public List<UserActivityLog> getAllLogs() {
@@ -95,8 +102,13 @@ public class UserActivityLogService {
         return userActivityLogRepository.findByUserIdAndTimestampBetween(userId, startDate, endDate);
     }
     
+    /**
+     * Сначала ищем в партициях последнего месяца, полный просмотр - только если там меньше 50 записей
+     */
     public List<UserActivityLog> getLast50Logs() {
-        return userActivityLogRepository.findTop50ByOrderByTimestampDesc();
+        List<UserActivityLog> recent = userActivityLogRepository
+                .findTop50ByTimestampAfterOrderByTimestampDesc(LocalDateTime.now().minusMonths(1));
+        return recent.size() == 50 ? recent : userActivityLogRepository.findTop50ByOrderByTimestampDesc();
     }
     
     public List<UserActivityLog> getTodayLogs() {
@@ -117,12 +129,10 @@ public class UserActivityLogService {
         return userActivityLogRepository.count();
     }
     
-    @Transactional
-    public int deleteOldLogs(LocalDateTime cutoffDate) {
-        List<UserActivityLog> oldLogs = userActivityLogRepository.findByTimestampBetween(
-            LocalDateTime.MIN, cutoffDate
-        );
-        userActivityLogRepository.deleteAll(oldLogs);
-        return oldLogs.size();
+    /**
+     * Удаление порциями без загрузки строк, каждая порция коммитится отдельно
+     */
+    public PurgeResult deleteOldLogs(LocalDateTime cutoffDate) {
+        return logRetentionService.purge(LogRetentionService.ACTIVITY_LOG, cutoffDate);
     }
 }
\ No newline at end of file
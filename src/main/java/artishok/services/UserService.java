@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import artishok.entities.User;
 import artishok.entities.enums.UserRole;
 import artishok.repositories.UserRepository;
+import artishok.security.JwtUserPrincipal;
 import jakarta.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -163,7 +164,7 @@ public class UserService {
 
 		if (userActivityLogService != null) {
 			try {
-				userActivityLogService.createLog(currentAdmin.getId(),
+				userActivityLogService.logUserAction(currentAdmin.getId(),
 						String.format("RESET_PASSWORD_FOR_USER_%d", userId));
 			} catch (Exception e) {
 
@@ -220,7 +221,11 @@ public class UserService {
 
 		Object principal = authentication.getPrincipal();
 
-		if (principal instanceof org.springframework.security.core.userdetails.UserDetails) {
+		if (principal instanceof JwtUserPrincipal jwtPrincipal) {
+
+			return userRepository.findById(jwtPrincipal.getId())
+					.orElseThrow(() -> new RuntimeException("Пользователь не найден"));
+		} else if (principal instanceof org.springframework.security.core.userdetails.UserDetails) {
 
 			String email = ((org.springframework.security.core.userdetails.UserDetails) principal).getUsername();
 			return userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("Пользователь не найден"));
@@ -0,0 +1,336 @@
+package artishok.services.images;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import artishok.services.storage.StorageService;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Уменьшенные копии загруженных изображений для srcset: category/entityId/uuid_w480.jpg и т.д.
+ * рядом с оригиналом. Строятся в фоне пулом обработчиков: в очереди только имена объектов,
+ * оригинал читается обратно из хранилища. Имена производных выводятся из имени оригинала,
+ * поэтому srcset можно отдать клиенту сразу, а готовность проверить по наличию объекта.
+ * WebP пишется, только если в classpath есть ImageIO-плагин с писателем webp.
+ */
+@Component
+public class ImageDerivativeService {
+    private static final String WEBP = "webp";
+
+    private final StorageService storageService;
+    private final boolean enabled;
+    private final int[] widths;
+    private final float quality;
+    private final long maxSourcePixels;
+    private final boolean webpAvailable;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ImageDerivativeService(StorageService storageService,
+            @Value("${app.images.derivatives.enabled:true}") boolean enabled,
+            @Value("${app.images.derivatives.widths:160,480,960,1600}") String widths,
+            @Value("${app.images.derivatives.quality:0.82}") float quality,
+            @Value("${app.images.derivatives.max-source-pixels:50000000}") long maxSourcePixels,
+            @Value("${app.images.derivatives.workers:2}") int workers,
+            @Value("${app.images.derivatives.queue-capacity:1000}") int queueCapacity) {
+        this.storageService = storageService;
+        this.enabled = enabled;
+        this.widths = Arrays.stream(widths.split(","))
+                .map(String::trim)
+                .filter(width -> !width.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .distinct()
+                .toArray();
+        this.quality = quality;
+        this.maxSourcePixels = maxSourcePixels;
+        this.webpAvailable = ImageIO.getImageWritersByFormatName(WEBP).hasNext();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    // Фоновая обработка не должна отнимать процессор у запросов
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Постановка оригинала в очередь. При переполненной очереди производные не строятся,
+     * клиенты показывают оригинал.
+     */
+    public void submit(String objectName) {
+        if (!enabled || widths.length == 0) {
+            return;
+        }
+        try {
+            executor.execute(() -> generate(objectName));
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            System.err.println("Очередь обработки изображений переполнена, пропущено: " + objectName);
+        }
+    }
+
+    /**
+     * MIME тип -> значение атрибута srcset ("url 160w, url 480w, ...")
+     */
+    public Map<String, String> srcset(String objectName) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (!enabled || widths.length == 0) {
+            return result;
+        }
+        if (webpAvailable) {
+            result.put("image/webp", srcset(objectName, WEBP));
+        }
+        String format = fallbackFormat(objectName);
+        result.put(mimeType(format), srcset(objectName, format));
+        return result;
+    }
+
+    /**
+     * Обработка пишет ширины от большей к меньшей, так что наименьшая появляется последней
+     */
+    public boolean isReady(String objectName) {
+        if (!enabled || widths.length == 0) {
+            return false;
+        }
+        String format = webpAvailable ? WEBP : fallbackFormat(objectName);
+        return storageService.fileExists(derivativeName(objectName, widths[0], format));
+    }
+
+    public List<String> derivativeNames(String objectName) {
+        List<String> names = new ArrayList<>();
+        String format = fallbackFormat(objectName);
+        for (int width : widths) {
+            names.add(derivativeName(objectName, width, format));
+            if (webpAvailable) {
+                names.add(derivativeName(objectName, width, WEBP));
+            }
+        }
+        return names;
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    private void generate(String objectName) {
+        try {
+            BufferedImage source;
+            try (InputStream in = storageService.downloadFile(objectName)) {
+                source = read(in, widths[widths.length - 1]);
+            }
+            if (source == null) {
+                failed.incrementAndGet();
+                System.err.println("Формат изображения не поддерживается, производные не построены: " + objectName);
+                return;
+            }
+
+            String format = fallbackFormat(objectName);
+            boolean alpha = "png".equals(format);
+            // Каждая следующая ширина уменьшается из предыдущей, а не из оригинала
+            BufferedImage current = source;
+            for (int i = widths.length - 1; i >= 0; i--) {
+                current = scale(current, Math.min(widths[i], current.getWidth()), alpha);
+                store(current, format, derivativeName(objectName, widths[i], format));
+                if (webpAvailable) {
+                    store(current, WEBP, derivativeName(objectName, widths[i], WEBP));
+                }
+            }
+            completed.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("Ошибка построения производных для " + objectName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Большие оригиналы декодируются с прореживанием так, чтобы обе стороны были не больше
+     * двойной наибольшей ширины: полноразмерный растр 6000x4000 занимает около 100MB.
+     * Размеры читаются из заголовка, оригинал сверх max-source-pixels не декодируется вовсе.
+     */
+    private BufferedImage read(InputStream in, int maxWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                if (width * height > maxSourcePixels) {
+                    throw new IOException("изображение " + width + "x" + height + " больше допустимых "
+                            + maxSourcePixels + " пикселей");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = subsampling(width, height, 2L * maxWidth);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Шаг прореживания, при котором обе стороны укладываются в bound: 6000x4000 при bound 3200 -> 2
+     */
+    static int subsampling(long width, long height, long bound) {
+        long bySide = Math.max((width + bound - 1) / bound, (height + bound - 1) / bound);
+        return (int) Math.max(1, bySide);
+    }
+
+    /**
+     * Уменьшение шагами не больше чем вдвое: билинейная интерполяция за один большой шаг дает муар
+     */
+    private static BufferedImage scale(BufferedImage source, int width, boolean alpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!alpha) {
+                    // В JPEG нет прозрачности: прозрачные области на белом фоне, а не на черном
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private void store(BufferedImage image, String format, String objectName) throws IOException {
+        byte[] data = encode(image, format);
+        // Прямая загрузка известного размера: фоновые копии не занимают разрешения потоковых загрузок клиентов
+        storageService.uploadBytes(data, objectName, mimeType(format));
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!"png".equals(format) && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null && types.length > 0) {
+                    // У писателей webp несколько режимов: нужен сжимающий с потерями
+                    param.setCompressionType(Arrays.stream(types)
+                            .filter(type -> type.toLowerCase(Locale.ROOT).contains("lossy"))
+                            .findFirst()
+                            .orElse(types[0]));
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private String srcset(String objectName, String format) {
+        return Arrays.stream(widths)
+                .mapToObj(width -> storageService.getFileUrl(derivativeName(objectName, width, format)) + " " + width + "w")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * PNG и GIF могут быть прозрачными - их копии в PNG, остальные в JPEG
+     */
+    private static String fallbackFormat(String objectName) {
+        String name = objectName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".png") || name.endsWith(".gif") ? "png" : "jpg";
+    }
+
+    private static String mimeType(String format) {
+        return switch (format) {
+            case "png" -> "image/png";
+            case WEBP -> "image/webp";
+            default -> "image/jpeg";
+        };
+    }
+
+    /**
+     * artwork/42/uuid.jpeg -> artwork/42/uuid_w480.jpg
+     */
+    static String derivativeName(String objectName, int width, String format) {
+        int dot = objectName.lastIndexOf('.');
+        int slash = objectName.lastIndexOf('/');
+        String base = dot > slash ? objectName.substring(0, dot) : objectName;
+        return base + "_w" + width + "." + format;
+    }
+}
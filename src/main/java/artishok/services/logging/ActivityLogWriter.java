@@ -0,0 +1,80 @@
+package artishok.services.logging;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Асинхронная запись user_activity_log пачками через JDBC batch, без загрузки пользователя
+ */
+@Component
+@DependsOn("logPartitionService")
+public class ActivityLogWriter extends AsyncBatchWriter<ActivityLogWriter.ActivityLogEvent> {
+    private static final String INSERT_SQL =
+            "INSERT INTO user_activity_log (user_id, action, timestamp) VALUES (?, ?, ?)";
+
+    public record ActivityLogEvent(Long userId, String action, LocalDateTime timestamp) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate,
+            @Value("${app.activity-log.buffer-capacity:65536}") int capacity,
+            @Value("${app.activity-log.batch-size:500}") int batchSize,
+            @Value("${app.activity-log.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${app.activity-log.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+            @Value("${app.activity-log.block-timeout-ms:50}") long blockTimeoutMillis) {
+        super("activity-log-writer", capacity, batchSize, flushIntervalMillis, overflowPolicy, blockTimeoutMillis);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+    }
+
+    public void log(Long userId, String action) {
+        submit(new ActivityLogEvent(userId, action, LocalDateTime.now()));
+    }
+
+    @Override
+    protected void writeBatch(List<ActivityLogEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+            ps.setLong(1, event.userId());
+            ps.setString(2, event.action());
+            ps.setTimestamp(3, Timestamp.valueOf(event.timestamp()));
+        });
+    }
+
+    /**
+     * Пачка целиком откатывается из-за одной плохой строки (например, пользователь уже удален),
+     * поэтому при ошибке строки дописываются по одной и теряются только невалидные
+     */
+    @Override
+    protected void onWriteFailure(List<ActivityLogEvent> batch, RuntimeException e) {
+        if (batch.size() == 1) {
+            super.onWriteFailure(batch, e);
+            return;
+        }
+        for (ActivityLogEvent event : batch) {
+            try {
+                writeBatch(List.of(event));
+            } catch (RuntimeException single) {
+                super.onWriteFailure(List.of(event), single);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package artishok.services.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Фоновая пакетная запись событий журнала. Вызывающие потоки кладут событие в кольцевой буфер
+ * и сразу возвращаются, отдельный поток сбрасывает накопленное пачкой, как только набралось
+ * batchSize событий или прошло flushIntervalMillis с прошлого сброса.
+ * При остановке буфер дочитывается до конца.
+ */
+public abstract class AsyncBatchWriter<T> {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final String name;
+    private final RingBuffer<T> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    protected AsyncBatchWriter(String name, int capacity, int batchSize, long flushIntervalMillis,
+            OverflowPolicy overflowPolicy, long blockTimeoutMillis) {
+        if (batchSize < 1 || flushIntervalMillis < 1) {
+            throw new IllegalArgumentException("Размер пачки и интервал сброса должны быть положительными");
+        }
+        this.name = name;
+        this.buffer = new RingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+    }
+
+    /**
+     * Запись пачки одним обращением к БД
+     */
+    protected abstract void writeBatch(List<T> batch);
+
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Останавливает фоновый поток и синхронно дописывает все, что осталось в буфере
+     */
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drainAll();
+    }
+
+    public void submit(T event) {
+        if (buffer.offer(event)) {
+            if (buffer.size() >= batchSize) {
+                wakeUp();
+            }
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case CALLER_RUNS -> flush(List.of(event));
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                wakeUp();
+                while (!buffer.offer(event)) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        onDropped(event);
+                        return;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            default -> onDropped(event);
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * true в фоновом потоке записи; false в потоке вызывающего (CALLER_RUNS) и при остановке
+     */
+    protected boolean isWorkerThread() {
+        return Thread.currentThread() == worker;
+    }
+
+    protected void onDropped(T event) {
+        long total = dropped.incrementAndGet();
+        // Не засоряем вывод при затяжном переполнении
+        if (Long.bitCount(total) == 1) {
+            System.err.println(name + ": буфер журнала переполнен, отброшено событий: " + total);
+        }
+    }
+
+    /**
+     * Ошибка записи пачки. По умолчанию пачка теряется, наследник может переопределить
+     */
+    protected void onWriteFailure(List<T> batch, RuntimeException e) {
+        dropped.addAndGet(batch.size());
+        System.err.println(name + ": ошибка записи журнала, потеряно " + batch.size() + " событий: " + e.getMessage());
+    }
+
+    private void wakeUp() {
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        long lastFlush = System.nanoTime();
+        while (running) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long now = System.nanoTime();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - lastFlush >= flushIntervalNanos)) {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+                lastFlush = now;
+                continue;
+            }
+            long untilFlush = batch.isEmpty() ? flushIntervalNanos : flushIntervalNanos - (now - lastFlush);
+            LockSupport.parkNanos(Math.max(1, Math.min(untilFlush, flushIntervalNanos)));
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void drainAll() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void flush(List<T> batch) {
+        try {
+            writeBatch(batch);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            onWriteFailure(batch, e);
+        }
+    }
+}
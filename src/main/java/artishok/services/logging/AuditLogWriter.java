@@ -0,0 +1,204 @@
+package artishok.services.logging;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import artishok.services.logging.AuditSpool.AuditEvent;
+import artishok.services.stats.StatisticsCounters;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Отложенная запись admin_audit_log пачками через JDBC batch. Событие сначала попадает
+ * в локальный журнал (AuditSpool), поэтому ни переполнение буфера, ни падение процесса,
+ * ни недоступность БД его не теряют: недоставленное дописывается по расписанию, пока узел
+ * работает, и при следующем старте после падения.
+ */
+@Component
+@DependsOn("logPartitionService")
+public class AuditLogWriter extends AsyncBatchWriter<AuditEvent> {
+    private static final String INSERT_SQL =
+            "INSERT INTO admin_audit_log (admin_id, action, target_entity_id, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatisticsCounters statisticsCounters;
+    private final AuditSpool spool;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    // События, лежащие в журнале, но выпавшие из буфера: ждут повторной доставки по расписанию
+    private final NavigableMap<Long, AuditEvent> stranded = new ConcurrentSkipListMap<>();
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, StatisticsCounters statisticsCounters,
+            @Value("${app.audit-log.spool-path:data/audit-spool.log}") String spoolPath,
+            @Value("${app.audit-log.spool-fsync:true}") boolean spoolFsync,
+            @Value("${app.audit-log.spool-compact-bytes:16777216}") long spoolCompactBytes,
+            @Value("${app.audit-log.buffer-capacity:16384}") int capacity,
+            @Value("${app.audit-log.batch-size:200}") int batchSize,
+            @Value("${app.audit-log.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${app.audit-log.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy,
+            @Value("${app.audit-log.block-timeout-ms:100}") long blockTimeoutMillis,
+            @Value("${app.audit-log.max-retries:3}") int maxRetries,
+            @Value("${app.audit-log.retry-backoff-ms:500}") long retryBackoffMillis) {
+        super("audit-log-writer", capacity, batchSize, flushIntervalMillis, overflowPolicy, blockTimeoutMillis);
+        this.jdbcTemplate = jdbcTemplate;
+        this.statisticsCounters = statisticsCounters;
+        this.spool = new AuditSpool(Path.of(spoolPath), spoolFsync, spoolCompactBytes);
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    /**
+     * До старта фонового потока дописывает события, не доставленные в прошлый запуск
+     */
+    @PostConstruct
+    public void init() {
+        List<AuditEvent> recovered = spool.recover();
+        if (!recovered.isEmpty()) {
+            System.out.println("Audit spool: восстановлено недоставленных событий: " + recovered.size());
+            strand(recovered);
+            redeliverStranded();
+        }
+        start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+        spool.close();
+    }
+
+    public void log(Long adminId, String action, Long targetEntityId) {
+        log(adminId, action, List.of(targetEntityId));
+    }
+
+    /**
+     * Массовое действие: все события фиксируются в журнале одной записью на диск
+     */
+    public void log(Long adminId, String action, Collection<Long> targetEntityIds) {
+        for (AuditEvent event : spool.append(adminId, action, targetEntityIds)) {
+            submit(event);
+        }
+    }
+
+    public int getUndeliveredCount() {
+        return spool.getPendingCount();
+    }
+
+    @Override
+    protected void writeBatch(List<AuditEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+            ps.setLong(1, event.adminId());
+            ps.setString(2, event.action());
+            ps.setLong(3, event.targetEntityId());
+            ps.setTimestamp(4, Timestamp.valueOf(event.timestamp()));
+        });
+        acknowledge(batch);
+        batch.forEach(event -> statisticsCounters.addAudit(event.adminId(), 1));
+    }
+
+    /**
+     * Повторная доставка событий, не записанных из-за переполнения буфера или недоступности БД.
+     * Идет в потоке планировщика, не задерживая ни запросы, ни фоновую запись.
+     */
+    @Scheduled(fixedDelayString = "${app.audit-log.redeliver-interval-ms:30000}",
+            initialDelayString = "${app.audit-log.redeliver-interval-ms:30000}")
+    public void redeliverStranded() {
+        while (!stranded.isEmpty()) {
+            List<AuditEvent> batch = new ArrayList<>(stranded.values().stream().limit(500).toList());
+            batch.forEach(event -> stranded.remove(event.seq()));
+            try {
+                writeBatch(batch);
+            } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+                strand(batch);
+                System.err.println("БД недоступна, " + stranded.size() + " событий аудита ждут повторной доставки: "
+                        + e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                writeIndividually(batch);
+            }
+        }
+    }
+
+    public int getStrandedCount() {
+        return stranded.size();
+    }
+
+    /**
+     * Событие, не поместившееся в буфер, уже лежит в журнале и будет доставлено повторно
+     */
+    @Override
+    protected void onDropped(AuditEvent event) {
+        strand(List.of(event));
+        System.err.println("Буфер аудита переполнен, событие " + event.seq() + " отложено до повторной доставки");
+    }
+
+    /**
+     * Недоступная БД: в фоновом потоке несколько повторов с паузой, затем события остаются
+     * в журнале до повторной доставки; поток вызывающего (CALLER_RUNS) не ждет никогда.
+     * Ошибка данных: строки пишутся по одной, отклоненные БД подтверждаются, чтобы не повторяться вечно.
+     */
+    @Override
+    protected void onWriteFailure(List<AuditEvent> batch, RuntimeException e) {
+        if (e instanceof TransientDataAccessException || e instanceof DataAccessResourceFailureException) {
+            if (isWorkerThread()) {
+                for (int attempt = 1; attempt <= maxRetries; attempt++) {
+                    try {
+                        Thread.sleep(retryBackoffMillis * attempt);
+                        writeBatch(batch);
+                        return;
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (RuntimeException retryFailure) {
+                        e = retryFailure;
+                    }
+                }
+            }
+            strand(batch);
+            System.err.println("БД недоступна, " + batch.size() + " событий аудита отложены до повторной доставки: "
+                    + e.getMessage());
+            return;
+        }
+
+        writeIndividually(batch);
+    }
+
+    private void writeIndividually(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            try {
+                writeBatch(List.of(event));
+            } catch (TransientDataAccessException | DataAccessResourceFailureException unavailable) {
+                strand(List.of(event));
+            } catch (RuntimeException single) {
+                System.err.println("Событие аудита отклонено БД: " + event + ": " + single.getMessage());
+                acknowledge(List.of(event));
+            }
+        }
+    }
+
+    private void strand(List<AuditEvent> events) {
+        events.forEach(event -> stranded.put(event.seq(), event));
+    }
+
+    private void acknowledge(List<AuditEvent> events) {
+        try {
+            spool.acknowledge(events);
+        } catch (RuntimeException e) {
+            // В БД события уже есть; без подтверждения при перезапуске возможен повтор
+            System.err.println("Ошибка подтверждения в журнале аудита: " + e.getMessage());
+        }
+    }
+}
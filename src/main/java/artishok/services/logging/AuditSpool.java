@@ -0,0 +1,200 @@
+package artishok.services.logging;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Локальный журнал упреждающей записи для событий аудита. Событие дописывается в файл до того,
+ * как попадет в буфер записи в БД, а после вставки пачки в файл добавляется строка подтверждения.
+ * При старте неподтвержденные события читаются заново, поэтому падение процесса до сброса
+ * не теряет аудит. Доставка "хотя бы один раз": падение между коммитом в БД и подтверждением
+ * приведет к повторной вставке.
+ *
+ * Формат строк: E seq adminId targetId timestamp action(base64) и A seq,seq,...
+ */
+public class AuditSpool {
+
+    public record AuditEvent(long seq, Long adminId, String action, Long targetEntityId, LocalDateTime timestamp) {
+    }
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Path path;
+    private final boolean fsync;
+    private final long compactThresholdBytes;
+    private final NavigableMap<Long, AuditEvent> pending = new ConcurrentSkipListMap<>();
+
+    private FileChannel channel;
+    private long nextSeq = 1;
+
+    public AuditSpool(Path path, boolean fsync, long compactThresholdBytes) {
+        this.path = path;
+        this.fsync = fsync;
+        this.compactThresholdBytes = compactThresholdBytes;
+    }
+
+    /**
+     * Открывает файл и возвращает события, не подтвержденные до остановки, в порядке записи
+     */
+    public synchronized List<AuditEvent> recover() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            if (Files.exists(path)) {
+                String content = Files.readString(path, StandardCharsets.UTF_8);
+                String[] lines = content.split("\n", -1);
+                // Последний элемент - хвост после завершающего перевода строки; непустой хвост -
+                // строка, недописанная при падении: ее поля могли обрезаться до других корректных значений
+                for (int i = 0; i < lines.length - 1; i++) {
+                    readLine(lines[i]);
+                }
+                if (!lines[lines.length - 1].isEmpty()) {
+                    System.err.println("Отброшена недописанная строка журнала аудита: " + lines[lines.length - 1]);
+                }
+            }
+            if (!pending.isEmpty()) {
+                nextSeq = pending.lastKey() + 1;
+            }
+            rewrite();
+            return new ArrayList<>(pending.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать журнал аудита " + path, e);
+        }
+    }
+
+    /**
+     * Записывает события в файл одной операцией; после возврата они переживут падение процесса
+     */
+    public synchronized List<AuditEvent> append(Long adminId, String action, Collection<Long> targetEntityIds) {
+        LocalDateTime timestamp = LocalDateTime.now();
+        List<AuditEvent> events = new ArrayList<>(targetEntityIds.size());
+        StringBuilder lines = new StringBuilder();
+        for (Long targetEntityId : targetEntityIds) {
+            AuditEvent event = new AuditEvent(nextSeq++, adminId, action, targetEntityId, timestamp);
+            events.add(event);
+            appendLine(lines, event);
+        }
+        write(lines);
+        events.forEach(event -> pending.put(event.seq(), event));
+        return events;
+    }
+
+    /**
+     * Отмечает события доставленными. Когда неподтвержденных не осталось, файл обнуляется,
+     * при росте сверх порога переписывается только с неподтвержденными событиями.
+     */
+    public synchronized void acknowledge(Collection<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        StringBuilder line = new StringBuilder("A\t");
+        for (AuditEvent event : events) {
+            line.append(event.seq()).append(',');
+            pending.remove(event.seq());
+        }
+        line.setLength(line.length() - 1);
+        line.append('\n');
+
+        try {
+            if (pending.isEmpty()) {
+                channel.truncate(0);
+            } else {
+                write(line);
+                if (channel.size() > compactThresholdBytes) {
+                    rewrite();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка записи журнала аудита " + path, e);
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Ошибка закрытия журнала аудита: " + e.getMessage());
+        }
+    }
+
+    private void readLine(String line) {
+        String[] parts = line.split("\t");
+        try {
+            if (parts.length == 6 && parts[0].equals("E")) {
+                long seq = Long.parseLong(parts[1]);
+                pending.put(seq, new AuditEvent(seq, Long.valueOf(parts[2]),
+                        new String(DECODER.decode(parts[5]), StandardCharsets.UTF_8),
+                        Long.valueOf(parts[3]), LocalDateTime.parse(parts[4])));
+            } else if (parts.length == 2 && parts[0].equals("A")) {
+                for (String seq : parts[1].split(",")) {
+                    pending.remove(Long.parseLong(seq));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Строка с поврежденными полями
+            System.err.println("Пропущена поврежденная строка журнала аудита: " + line);
+        }
+    }
+
+    /**
+     * Переписывает файл только неподтвержденными событиями через временный файл
+     */
+    private void rewrite() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (AuditEvent event : pending.values()) {
+            appendLine(lines, event);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.writeString(tmp, lines, StandardCharsets.UTF_8);
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (fsync) {
+            channel.force(true);
+        }
+    }
+
+    private static void appendLine(StringBuilder lines, AuditEvent event) {
+        lines.append("E\t").append(event.seq()).append('\t').append(event.adminId()).append('\t')
+                .append(event.targetEntityId()).append('\t').append(event.timestamp()).append('\t')
+                .append(ENCODER.encodeToString(event.action().getBytes(StandardCharsets.UTF_8))).append('\n');
+    }
+
+    private void write(CharSequence lines) {
+        try {
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines.toString());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка записи журнала аудита " + path, e);
+        }
+    }
+}
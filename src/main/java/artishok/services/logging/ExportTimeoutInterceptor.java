@@ -0,0 +1,49 @@
+package artishok.services.logging;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Увеличенный async-таймаут только для потоковых выгрузок журналов: контроллер помечает запрос
+ * через markExport, остальные асинхронные запросы живут со стандартным таймаутом.
+ */
+@Component
+public class ExportTimeoutInterceptor implements CallableProcessingInterceptor, WebMvcConfigurer {
+    private static final String EXPORT_ATTRIBUTE = ExportTimeoutInterceptor.class.getName() + ".export";
+
+    private final long timeoutMs;
+
+    public ExportTimeoutInterceptor(@Value("${app.log-export.timeout-ms:1800000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public static void markExport(HttpServletRequest request) {
+        request.setAttribute(EXPORT_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(this);
+    }
+
+    /**
+     * Вызывается до startAsync, поэтому таймаут еще можно поменять
+     */
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (Boolean.TRUE.equals(request.getAttribute(EXPORT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))
+                && request instanceof AsyncWebRequest asyncRequest) {
+            asyncRequest.setTimeout(timeoutMs);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package artishok.services.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import artishok.dto.ActivityLogExportRow;
+import artishok.dto.AuditLogExportRow;
+import artishok.repositories.AdminAuditLogRepository;
+import artishok.repositories.UserActivityLogRepository;
+
+/**
+ * Потоковая выгрузка журналов в NDJSON или CSV. Строки читаются курсором внутри
+ * read-only транзакции и сразу пишутся в ответ, поэтому память не зависит от размера выгрузки.
+ */
+@Service
+public class LogExportService {
+
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat parse(String value) {
+            for (ExportFormat format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Неподдерживаемый формат выгрузки: " + value);
+        }
+    }
+
+    private final UserActivityLogRepository userActivityLogRepository;
+    private final AdminAuditLogRepository adminAuditLogRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public LogExportService(UserActivityLogRepository userActivityLogRepository,
+            AdminAuditLogRepository adminAuditLogRepository, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper) {
+        this.userActivityLogRepository = userActivityLogRepository;
+        this.adminAuditLogRepository = adminAuditLogRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportActivityLogs(LocalDateTime from, LocalDateTime to, String action, ExportFormat format,
+            OutputStream out) {
+        export(format, out, "id,user_id,action,timestamp",
+                () -> userActivityLogRepository.streamForExport(from, to, action),
+                row -> row.getId() + "," + row.getUserId() + "," + csv(row.getAction()) + "," + row.getTimestamp());
+    }
+
+    public void exportAuditLogs(LocalDateTime from, LocalDateTime to, String action, ExportFormat format,
+            OutputStream out) {
+        export(format, out, "id,admin_id,action,target_entity_id,timestamp",
+                () -> adminAuditLogRepository.streamForExport(from, to, action),
+                row -> row.getId() + "," + row.getAdminId() + "," + csv(row.getAction()) + ","
+                        + row.getTargetEntityId() + "," + row.getTimestamp());
+    }
+
+    private <T> void export(ExportFormat format, OutputStream out, String csvHeader,
+            Supplier<Stream<T>> query, Function<T, String> csvLine) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get()) {
+                if (format == ExportFormat.CSV) {
+                    writer.write(csvHeader);
+                    writer.write('\n');
+                }
+                rows.forEach(row -> writeLine(writer, format == ExportFormat.CSV ? csvLine.apply(row) : json(row)));
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private String json(Object row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ошибка сериализации строки журнала", e);
+        }
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            // Клиент закрыл соединение - прерываем чтение курсора
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,143 @@
+package artishok.services.logging;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Помесячные партиции журналов (RANGE по timestamp). Партиции на текущий и несколько
+ * следующих месяцев создаются заранее, чтобы записи не попадали в DEFAULT; истекшие месяцы
+ * удаляются целиком через DROP вместо построчного DELETE.
+ * Имя партиции: {table}_pYYYYMM.
+ */
+@Service
+public class LogPartitionService {
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    public LogPartitionService(JdbcTemplate jdbcTemplate,
+            @Value("${app.log-partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @PostConstruct
+    @Scheduled(cron = "${app.log-partitions.cron:0 0 2 * * *}")
+    public void ensurePartitions() {
+        for (String table : List.of(LogRetentionService.ACTIVITY_LOG, LogRetentionService.AUDIT_LOG)) {
+            try {
+                ensurePartitions(table, YearMonth.now());
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка создания партиций " + table + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ошибка одного месяца не мешает создать остальные
+     */
+    public void ensurePartitions(String table, YearMonth from) {
+        if (!isPartitioned(table)) {
+            return;
+        }
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = from.plusMonths(i);
+            try {
+                createPartition(table, month);
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка создания партиции " + partitionName(table, month) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Если записи этого месяца уже лежат в DEFAULT, простой CREATE ... PARTITION OF падает
+     * на проверке ограничения DEFAULT. Тогда DEFAULT отсоединяется, записи переносятся в новую
+     * партицию и DEFAULT присоединяется обратно - одним DO-блоком, то есть одной транзакцией.
+     */
+    private void createPartition(String table, YearMonth month) {
+        String partition = partitionName(table, month);
+        if (relationExists(partition)) {
+            return;
+        }
+        String lower = "'" + month.atDay(1) + "'";
+        String upper = "'" + month.plusMonths(1).atDay(1) + "'";
+        String bounds = " FOR VALUES FROM (" + lower + ") TO (" + upper + ")";
+
+        String defaultPartition = table + "_default";
+        boolean defaultHasRows = relationExists(defaultPartition) && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + defaultPartition + " WHERE timestamp >= " + lower
+                        + " AND timestamp < " + upper + ")", Boolean.class));
+        if (!defaultHasRows) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table + bounds);
+            return;
+        }
+
+        String range = " WHERE timestamp >= " + lower + " AND timestamp < " + upper;
+        jdbcTemplate.execute("DO $$ BEGIN "
+                + "ALTER TABLE " + table + " DETACH PARTITION " + defaultPartition + "; "
+                + "CREATE TABLE " + partition + " PARTITION OF " + table + bounds + "; "
+                + "INSERT INTO " + partition + " SELECT * FROM " + defaultPartition + range + "; "
+                + "DELETE FROM " + defaultPartition + range + "; "
+                + "ALTER TABLE " + table + " ATTACH PARTITION " + defaultPartition + " DEFAULT; "
+                + "END $$");
+        System.out.println("Log partitions: записи " + month + " перенесены из " + defaultPartition + " в " + partition);
+    }
+
+    /**
+     * Удаляет партиции, все записи которых старше cutoff; возвращает число удаленных партиций.
+     * Месяц, в который попадает cutoff, остается и дочищается построчно.
+     */
+    public int dropPartitionsBefore(String table, LocalDateTime cutoff) {
+        if (!isPartitioned(table)) {
+            return 0;
+        }
+        Pattern pattern = Pattern.compile(Pattern.quote(table) + "_p(\\d{6})");
+
+        int dropped = 0;
+        for (String partition : listPartitions(table)) {
+            Matcher matcher = pattern.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            LocalDate upperBound = YearMonth.parse(matcher.group(1), SUFFIX).plusMonths(1).atDay(1);
+            if (!upperBound.atStartOfDay().isAfter(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    public boolean isPartitioned(String table) {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass(?)", String.class, table);
+        return !kinds.isEmpty() && "p".equals(kinds.get(0));
+    }
+
+    private boolean relationExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = to_regclass(?) ORDER BY c.relname", String.class, table);
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+}
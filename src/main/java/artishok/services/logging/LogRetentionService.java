@@ -0,0 +1,82 @@
+package artishok.services.logging;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Удаление старых записей журналов. Месяцы, целиком вышедшие за срок хранения, удаляются
+ * как партиции; остаток пограничного месяца и DEFAULT чистятся порциями: каждая порция -
+ * отдельный DELETE по индексу timestamp в своей транзакции, поэтому ни строки, ни длинная
+ * блокировка не копятся.
+ */
+@Service
+public class LogRetentionService {
+    public static final String ACTIVITY_LOG = "user_activity_log";
+    public static final String AUDIT_LOG = "admin_audit_log";
+
+    public record PurgeResult(String table, long rows, int partitionsDropped, double seconds) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LogPartitionService logPartitionService;
+    private final int chunkSize;
+    private final int activityRetentionDays;
+    private final int auditRetentionDays;
+
+    public LogRetentionService(JdbcTemplate jdbcTemplate, LogPartitionService logPartitionService,
+            @Value("${app.log-retention.chunk-size:5000}") int chunkSize,
+            @Value("${app.log-retention.activity-days:90}") int activityRetentionDays,
+            @Value("${app.log-retention.audit-days:365}") int auditRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.logPartitionService = logPartitionService;
+        this.chunkSize = chunkSize;
+        this.activityRetentionDays = activityRetentionDays;
+        this.auditRetentionDays = auditRetentionDays;
+    }
+
+    @Scheduled(cron = "${app.log-retention.cron:0 30 3 * * *}")
+    public void purgeExpiredLogs() {
+        LocalDateTime now = LocalDateTime.now();
+        if (activityRetentionDays > 0) {
+            report(purge(ACTIVITY_LOG, now.minusDays(activityRetentionDays)));
+        }
+        if (auditRetentionDays > 0) {
+            report(purge(AUDIT_LOG, now.minusDays(auditRetentionDays)));
+        }
+    }
+
+    /**
+     * Удаляет записи старше cutoff. В PostgreSQL нет DELETE ... LIMIT, поэтому порция
+     * выбирается подзапросом по ключу (id, timestamp); условие на timestamp во внешнем
+     * запросе оставляет для удаления только партиции до cutoff.
+     */
+    public PurgeResult purge(String table, LocalDateTime cutoff) {
+        if (!ACTIVITY_LOG.equals(table) && !AUDIT_LOG.equals(table)) {
+            throw new IllegalArgumentException("Неизвестный журнал: " + table);
+        }
+        String sql = "DELETE FROM " + table + " WHERE timestamp < ? AND (id, timestamp) IN (SELECT id, timestamp FROM "
+                + table + " WHERE timestamp < ? LIMIT ?)";
+        Timestamp cutoffTimestamp = Timestamp.valueOf(cutoff);
+
+        long started = System.nanoTime();
+        int partitionsDropped = logPartitionService.dropPartitionsBefore(table, cutoff);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, cutoffTimestamp, cutoffTimestamp, chunkSize);
+            total += deleted;
+        } while (deleted == chunkSize);
+
+        return new PurgeResult(table, total, partitionsDropped, (System.nanoTime() - started) / 1e9);
+    }
+
+    private void report(PurgeResult result) {
+        System.out.printf("Log retention: %s - удалено партиций %d, строк %d за %.2f с%n", result.table(),
+                result.partitionsDropped(), result.rows(), result.seconds());
+    }
+}
@@ -0,0 +1,13 @@
+package artishok.services.logging;
+
+/**
+ * Поведение при заполненном буфере журнала
+ */
+public enum OverflowPolicy {
+    /** Событие отбрасывается, растет счетчик потерь */
+    DROP,
+    /** Вызывающий поток ждет освобождения места не дольше заданного таймаута, затем событие отбрасывается */
+    BLOCK,
+    /** Событие записывается синхронно в потоке вызывающего */
+    CALLER_RUNS
+}
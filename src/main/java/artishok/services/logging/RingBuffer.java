@@ -0,0 +1,95 @@
+package artishok.services.logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченная неблокирующая очередь на кольцевом массиве (схема Вьюкова).
+ * У каждой ячейки есть порядковый номер: производитель занимает ячейку CAS-ом по хвосту,
+ * потребитель забирает ее, когда номер показывает, что запись завершена.
+ * Вставка в полную очередь сразу возвращает false, решение о переполнении принимает вызывающий.
+ */
+public class RingBuffer<T> {
+    private final int mask;
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Емкость буфера должна быть не меньше 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.items = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items.lazySet(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    public T poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T item = items.get(index);
+                    items.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return item;
+                }
+                position = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Забирает до max элементов в target, возвращает количество перенесенных
+     */
+    public int drainTo(List<T> target, int max) {
+        int drained = 0;
+        T item;
+        while (drained < max && (item = poll()) != null) {
+            target.add(item);
+            drained++;
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
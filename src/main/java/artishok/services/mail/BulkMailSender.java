@@ -0,0 +1,71 @@
+package artishok.services.mail;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Массовая рассылка по шаблону. Получатели читаются потоком, письма отрисовываются и пишутся
+ * в email_outbox пачками по bulk-chunk-size, так что в памяти одновременно лежит только одна
+ * пачка независимо от размера рассылки. Отправляет их, как и остальные письма, MailDispatcher.
+ */
+@Component
+public class BulkMailSender {
+
+    public record Recipient(String email, Map<String, Object> variables) {
+    }
+
+    private final MailTemplateRenderer renderer;
+    private final MailOutbox mailOutbox;
+    private final int chunkSize;
+
+    public BulkMailSender(MailTemplateRenderer renderer, MailOutbox mailOutbox,
+            @Value("${app.mail.bulk-chunk-size:500}") int chunkSize) {
+        this.renderer = renderer;
+        this.mailOutbox = mailOutbox;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Возвращает число писем, поставленных в очередь. Получатель без адреса или с ошибкой
+     * отрисовки пропускается, остальная рассылка продолжается.
+     */
+    public int send(EmailTemplate template, Stream<Recipient> recipients) {
+        List<MailOutbox.OutgoingEmail> chunk = new ArrayList<>(chunkSize);
+        int queued = 0;
+        Iterator<Recipient> iterator = recipients.iterator();
+        while (iterator.hasNext()) {
+            Recipient recipient = iterator.next();
+            if (recipient.email() == null || recipient.email().isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(new MailOutbox.OutgoingEmail(recipient.email(), template.getSubject(),
+                        renderer.render(template, recipient.variables())));
+            } catch (RuntimeException e) {
+                System.err.println("Письмо для " + recipient.email() + " не отрисовано: " + e.getMessage());
+                continue;
+            }
+            if (chunk.size() >= chunkSize) {
+                queued += flush(chunk);
+            }
+        }
+        queued += flush(chunk);
+        return queued;
+    }
+
+    private int flush(List<MailOutbox.OutgoingEmail> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        mailOutbox.enqueueAll(chunk);
+        int size = chunk.size();
+        chunk.clear();
+        return size;
+    }
+}
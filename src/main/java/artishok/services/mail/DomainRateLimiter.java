@@ -0,0 +1,91 @@
+package artishok.services.mail;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничение частоты отправки на домен получателя (token bucket): крупные почтовые сервисы
+ * отвечают временными отказами или помечают отправителя как спам, если слать им пачкой.
+ */
+public class DomainRateLimiter {
+
+    private static final class Bucket {
+        private final double permitsPerNano;
+        private final double burst;
+        private final LongSupplier nanoClock;
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double permitsPerSecond, double burst, LongSupplier nanoClock) {
+            this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.burst = burst;
+            this.nanoClock = nanoClock;
+            this.tokens = burst;
+            this.refilledAt = nanoClock.getAsLong();
+        }
+
+        synchronized long tryAcquire() {
+            long now = nanoClock.getAsLong();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / permitsPerNano);
+        }
+    }
+
+    private final double defaultRate;
+    private final double burst;
+    private final Map<String, Double> domainRates;
+    private final LongSupplier nanoClock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public DomainRateLimiter(double defaultRate, double burst, Map<String, Double> domainRates) {
+        this(defaultRate, burst, domainRates, System::nanoTime);
+    }
+
+    DomainRateLimiter(double defaultRate, double burst, Map<String, Double> domainRates, LongSupplier nanoClock) {
+        this.defaultRate = defaultRate;
+        this.burst = burst;
+        this.domainRates = domainRates;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Формат: gmail.com:20,mail.ru:10 - писем в секунду для отдельных доменов
+     */
+    public static Map<String, Double> parseLimits(String value) {
+        Map<String, Double> limits = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return limits;
+        }
+        for (String part : value.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Некорректный лимит домена: " + part);
+            }
+            limits.put(kv[0].trim().toLowerCase(Locale.ROOT), Double.parseDouble(kv[1].trim()));
+        }
+        return limits;
+    }
+
+    /**
+     * 0, если отправлять можно сейчас, иначе сколько наносекунд ждать до следующего разрешения
+     */
+    public long tryAcquire(String recipient) {
+        String domain = domainOf(recipient);
+        return buckets.computeIfAbsent(domain,
+                key -> new Bucket(domainRates.getOrDefault(key, defaultRate), burst, nanoClock)).tryAcquire();
+    }
+
+    static String domainOf(String recipient) {
+        int at = recipient.lastIndexOf('@');
+        return at < 0 ? "" : recipient.substring(at + 1).trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,25 @@
+package artishok.services.mail;
+
+/**
+ * Шаблоны писем из resources/templates/email и их темы
+ */
+public enum EmailTemplate {
+    VERIFICATION("verification", "Подтверждение email для сервиса АРТиШОК"),
+    WELCOME("welcome", "Добро пожаловать в АРТиШОК!");
+
+    private final String templateName;
+    private final String subject;
+
+    EmailTemplate(String templateName, String subject) {
+        this.templateName = templateName;
+        this.subject = subject;
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+}
@@ -0,0 +1,313 @@
+package artishok.services.mail;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Отправка писем из email_outbox пулом обработчиков. Каждый обработчик забирает пачку готовых
+ * писем (FOR UPDATE SKIP LOCKED, с арендой на lease-seconds), держит собственное SMTP-соединение
+ * на всю пачку и закрывает его, когда очередь пуста. Временные ошибки повторяются с
+ * экспоненциальной задержкой, отказ сервера в адресате сразу переводит письмо в FAILED.
+ * Если узел упал посреди пачки, письма забираются повторно после истечения аренды; такой повторный
+ * захват считается попыткой, поэтому письмо, роняющее обработчик, не повторяется бесконечно.
+ */
+@Component
+public class MailDispatcher {
+    private static final String CLAIM_SQL = """
+            UPDATE email_outbox SET status = 'SENDING', locked_until = ?,
+                attempts = CASE WHEN status = 'SENDING' THEN attempts + 1 ELSE attempts END
+            WHERE id IN (SELECT id FROM email_outbox
+                         WHERE (status = 'PENDING' AND next_attempt_at <= ?)
+                            OR (status = 'SENDING' AND locked_until < ?)
+                         ORDER BY next_attempt_at
+                         LIMIT ?
+                         FOR UPDATE SKIP LOCKED)
+            RETURNING id, recipient, subject, body, attempts
+            """;
+    private static final String SENT_SQL =
+            "UPDATE email_outbox SET status = 'SENT', attempts = attempts + 1, sent_at = ?, locked_until = NULL, last_error = NULL WHERE id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE email_outbox SET status = ?, attempts = ?, next_attempt_at = ?, locked_until = NULL, last_error = ? WHERE id = ?";
+    private static final String DEFER_SQL =
+            "UPDATE email_outbox SET status = 'PENDING', next_attempt_at = ?, locked_until = NULL WHERE id = ?";
+    private static final String PURGE_SQL = """
+            DELETE FROM email_outbox WHERE id IN (
+                SELECT id FROM email_outbox WHERE status = 'SENT' AND sent_at < ? LIMIT 5000)
+            """;
+
+    record OutboxMessage(long id, String recipient, String subject, String body, int attempts) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JavaMailSenderImpl mailSender;
+    private final DomainRateLimiter rateLimiter;
+    private final String fromEmail;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long leaseSeconds;
+    private final RetryPolicy retryPolicy;
+    private final int sentRetentionDays;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean running;
+
+    public MailDispatcher(JdbcTemplate jdbcTemplate, JavaMailSenderImpl mailSender,
+            @Value("${spring.mail.from:dashainastya@artishok.com}") String fromEmail,
+            @Value("${app.mail.workers:4}") int workers,
+            @Value("${app.mail.batch-size:20}") int batchSize,
+            @Value("${app.mail.poll-interval-ms:1000}") long pollIntervalMillis,
+            @Value("${app.mail.lease-seconds:120}") long leaseSeconds,
+            @Value("${app.mail.max-attempts:8}") int maxAttempts,
+            @Value("${app.mail.retry-base-ms:30000}") long retryBaseMillis,
+            @Value("${app.mail.retry-max-ms:3600000}") long retryMaxMillis,
+            @Value("${app.mail.domain-rate-per-second:5}") double domainRate,
+            @Value("${app.mail.domain-burst:10}") double domainBurst,
+            @Value("${app.mail.domain-limits:}") String domainLimits,
+            @Value("${app.mail.sent-retention-days:7}") int sentRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mailSender = mailSender;
+        this.fromEmail = fromEmail;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.leaseSeconds = leaseSeconds;
+        this.retryPolicy = new RetryPolicy(maxAttempts, retryBaseMillis, retryMaxMillis);
+        this.sentRetentionDays = sentRetentionDays;
+        this.rateLimiter = new DomainRateLimiter(domainRate, domainBurst, DomainRateLimiter.parseLimits(domainLimits));
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::runWorker, "mail-dispatcher-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Письма, взятые в работу, но не отправленные, вернутся в очередь по истечении аренды
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        wakeups.release(workers);
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Новые письма в очереди: не ждать очередного опроса
+     */
+    public void wakeUp() {
+        if (wakeups.availablePermits() < workers) {
+            wakeups.release();
+        }
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    public long getRetriedCount() {
+        return retried.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    @Scheduled(cron = "${app.mail.purge-cron:0 15 3 * * *}")
+    public void purgeSent() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(sentRetentionDays));
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, cutoff);
+            total += deleted;
+        } while (deleted > 0);
+        if (total > 0) {
+            System.out.println("Mail outbox cleanup: removed " + total + " sent messages");
+        }
+    }
+
+    private void runWorker() {
+        Transport transport = null;
+        while (running) {
+            List<OutboxMessage> batch;
+            try {
+                batch = claim();
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка выборки писем из очереди: " + e.getMessage());
+                batch = List.of();
+            }
+
+            if (batch.isEmpty()) {
+                // Простаивающее соединение SMTP-сервер все равно закроет по таймауту
+                transport = close(transport);
+                try {
+                    wakeups.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                continue;
+            }
+
+            for (OutboxMessage message : batch) {
+                try {
+                    transport = process(transport, message);
+                } catch (RuntimeException e) {
+                    // Не удалось записать результат: письмо вернется в очередь по истечении аренды
+                    System.err.println("Ошибка обновления письма " + message.id() + " в очереди: " + e.getMessage());
+                }
+            }
+        }
+        close(transport);
+    }
+
+    Transport process(Transport transport, OutboxMessage message) {
+        if (retryPolicy.isExhausted(message.attempts(), false)) {
+            // Аренда истекала на каждой попытке: письмо роняет обработчик или узел
+            fail(message, message.attempts(), "Аренда истекла после " + message.attempts() + " попыток");
+            return transport;
+        }
+        long waitNanos = rateLimiter.tryAcquire(message.recipient());
+        if (waitNanos > 0) {
+            defer(message, TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+            return transport;
+        }
+        try {
+            transport = send(transport, message);
+        } catch (SendFailedException | AddressException e) {
+            // Сервер отказал в адресате: повтор не поможет
+            retry(message, e, true);
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            retry(message, e, false);
+            return close(transport);
+        }
+        markSent(message);
+        return transport;
+    }
+
+    private List<OutboxMessage> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxMessage(rs.getLong("id"), rs.getString("recipient"),
+                        rs.getString("subject"), rs.getString("body"), rs.getInt("attempts")),
+                Timestamp.valueOf(now.plusSeconds(leaseSeconds)), Timestamp.valueOf(now), Timestamp.valueOf(now),
+                batchSize);
+    }
+
+    private Transport send(Transport transport, OutboxMessage outboxMessage) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(outboxMessage.recipient());
+        helper.setSubject(outboxMessage.subject());
+        helper.setText(outboxMessage.body(), true);
+        message.setSentDate(new Date());
+        message.saveChanges();
+
+        if (transport == null || !transport.isConnected()) {
+            transport = connect();
+        }
+        transport.sendMessage(message, message.getAllRecipients());
+        return transport;
+    }
+
+    /**
+     * Соединение настраивается так же, как в JavaMailSenderImpl, но живет дольше одного письма
+     */
+    private Transport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        return transport;
+    }
+
+    private static Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                // Соединение уже разорвано
+            }
+        }
+        return null;
+    }
+
+    private void markSent(OutboxMessage message) {
+        jdbcTemplate.update(SENT_SQL, Timestamp.valueOf(LocalDateTime.now()), message.id());
+        sent.incrementAndGet();
+    }
+
+    private void defer(OutboxMessage message, long delayMillis) {
+        jdbcTemplate.update(DEFER_SQL, Timestamp.valueOf(LocalDateTime.now().plusNanos(delayMillis * 1_000_000)),
+                message.id());
+    }
+
+    void retry(OutboxMessage message, Exception e, boolean permanent) {
+        int attempts = message.attempts() + 1;
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (retryPolicy.isExhausted(attempts, permanent)) {
+            fail(message, attempts, error);
+            return;
+        }
+
+        long delay = retryPolicy.delayMillis(attempts, ThreadLocalRandom.current().nextDouble());
+        jdbcTemplate.update(RETRY_SQL, "PENDING", attempts,
+                Timestamp.valueOf(LocalDateTime.now().plusNanos(delay * 1_000_000)), error, message.id());
+        retried.incrementAndGet();
+    }
+
+    private void fail(OutboxMessage message, int attempts, String error) {
+        jdbcTemplate.update(RETRY_SQL, "FAILED", attempts, Timestamp.valueOf(LocalDateTime.now()), error,
+                message.id());
+        failed.incrementAndGet();
+        System.err.println("Письмо " + message.id() + " для " + message.recipient() + " не отправлено: " + error);
+    }
+}
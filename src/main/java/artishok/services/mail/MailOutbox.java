@@ -0,0 +1,66 @@
+package artishok.services.mail;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Постановка письма в очередь email_outbox. Запись идет через тот же JDBC-коннект, что и текущая
+ * транзакция, поэтому письмо появляется в очереди только вместе с данными операции (регистрацией,
+ * токеном подтверждения) и пропадает при ее откате. Отправку выполняет MailDispatcher.
+ */
+@Component
+public class MailOutbox {
+
+    public record OutgoingEmail(String recipient, String subject, String htmlBody) {
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO email_outbox (recipient, subject, body, status, next_attempt_at) VALUES (?, ?, ?, 'PENDING', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MailDispatcher dispatcher;
+
+    public MailOutbox(JdbcTemplate jdbcTemplate, MailDispatcher dispatcher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dispatcher = dispatcher;
+    }
+
+    public void enqueue(String recipient, String subject, String htmlBody) {
+        jdbcTemplate.update(INSERT_SQL, recipient, subject, htmlBody, Timestamp.valueOf(LocalDateTime.now()));
+        wakeDispatcher();
+    }
+
+    /**
+     * Пачка писем одним JDBC batch
+     */
+    public void enqueueAll(List<OutgoingEmail> emails) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, emails, emails.size(), (ps, email) -> {
+            ps.setString(1, email.recipient());
+            ps.setString(2, email.subject());
+            ps.setString(3, email.htmlBody());
+            ps.setTimestamp(4, now);
+        });
+        wakeDispatcher();
+    }
+
+    private void wakeDispatcher() {
+        // Будим обработчики после коммита, иначе они не увидят строку и уснут до следующего опроса
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.wakeUp();
+                }
+            });
+        } else {
+            dispatcher.wakeUp();
+        }
+    }
+}
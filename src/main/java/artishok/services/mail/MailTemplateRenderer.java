@@ -0,0 +1,98 @@
+package artishok.services.mail;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Отрисовка писем Thymeleaf. Шаблоны разбираются один раз при старте и дальше берутся из кэша
+ * движка; собственный движок, а не веб-шаблонизатор Spring, чтобы spring.thymeleaf.cache=false
+ * (devtools) не отключал кэш для писем. Каждый поток пишет в свой переиспользуемый буфер.
+ */
+@Component
+public class MailTemplateRenderer {
+    private static final Locale LOCALE = Locale.forLanguageTag("ru");
+    private static final int INITIAL_BUFFER = 8 * 1024;
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private final TemplateEngine templateEngine;
+    private final ThreadLocal<RenderBuffer> buffers = ThreadLocal.withInitial(RenderBuffer::new);
+
+    public MailTemplateRenderer() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+        resolver.setCacheTTLMs(null);
+
+        this.templateEngine = new TemplateEngine();
+        this.templateEngine.setTemplateResolver(resolver);
+    }
+
+    /**
+     * Разбор всех шаблонов при старте: ошибка в шаблоне не даст приложению подняться,
+     * а не всплывет на первой регистрации
+     */
+    @PostConstruct
+    public void precompile() {
+        for (EmailTemplate template : EmailTemplate.values()) {
+            render(template, Map.of());
+        }
+    }
+
+    public String render(EmailTemplate template, Map<String, Object> variables) {
+        RenderBuffer buffer = buffers.get();
+        buffer.context.setVariables(variables);
+        try {
+            templateEngine.process(template.getTemplateName(), buffer.context, buffer);
+            return buffer.content.toString();
+        } finally {
+            buffer.context.clearVariables();
+            if (buffer.content.capacity() > MAX_RETAINED_BUFFER) {
+                // Разовое огромное письмо не должно навсегда занимать память потока
+                buffers.remove();
+            } else {
+                buffer.content.setLength(0);
+            }
+        }
+    }
+
+    private static final class RenderBuffer extends Writer {
+        private final StringBuilder content = new StringBuilder(INITIAL_BUFFER);
+        private final Context context = new Context(LOCALE);
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            content.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String str, int offset, int length) {
+            content.append(str, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            content.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
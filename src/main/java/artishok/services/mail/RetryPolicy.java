@@ -0,0 +1,34 @@
+package artishok.services.mail;
+
+/**
+ * Расписание повторов отправки: задержка base * 2^(n-1), не больше max, с разбросом ±20%,
+ * чтобы повторы после сбоя сервера не приходили одной волной
+ */
+final class RetryPolicy {
+    static final double JITTER = 0.2;
+
+    private final int maxAttempts;
+    private final long baseMillis;
+    private final long maxMillis;
+
+    RetryPolicy(int maxAttempts, long baseMillis, long maxMillis) {
+        this.maxAttempts = maxAttempts;
+        this.baseMillis = baseMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * true, если после attempts попыток письмо больше не повторяется и переходит в FAILED
+     */
+    boolean isExhausted(int attempts, boolean permanent) {
+        return permanent || attempts >= maxAttempts;
+    }
+
+    /**
+     * Задержка перед следующей попыткой после attempts неудачных; random - случайное число из [0, 1)
+     */
+    long delayMillis(int attempts, double random) {
+        long delay = Math.min(maxMillis, baseMillis << Math.min(attempts - 1, 20));
+        return (long) (delay * (1 - JITTER + 2 * JITTER * random));
+    }
+}
@@ -0,0 +1,56 @@
+package artishok.services.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный фильтр Блума по SHA-256 в hex. Ложноотрицательных ответов нет,
+ * поэтому отрицательный ответ можно отдавать без обращения к БД.
+ * Позиции битов строятся двойным хешированием из первых 16 байт хеша.
+ */
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+
+    private BloomFilter(long numBits, int numHashes) {
+        this.words = new AtomicLongArray((int) ((numBits + 63) / 64));
+        this.numBits = (long) words.length() * 64;
+        this.numHashes = numHashes;
+    }
+
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        return new BloomFilter(Math.min(bits, (long) Integer.MAX_VALUE * 64), hashes);
+    }
+
+    public void put(String hexHash) {
+        long h1 = Long.parseUnsignedLong(hexHash, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hexHash, 16, 32, 16);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(index);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String hexHash) {
+        long h1 = Long.parseUnsignedLong(hexHash, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hexHash, 16, 32, 16);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
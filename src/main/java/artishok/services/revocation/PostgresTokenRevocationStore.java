@@ -0,0 +1,55 @@
+package artishok.services.revocation;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.stereotype.Service;
+
+import artishok.entities.RevokedToken;
+import artishok.repositories.RevokedTokenRepository;
+
+@Service
+public class PostgresTokenRevocationStore implements TokenRevocationStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    public PostgresTokenRevocationStore(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @Override
+    public void revoke(String tokenHash, LocalDateTime expiresAt) {
+        revokedTokenRepository.insertIfAbsent(tokenHash, expiresAt, LocalDateTime.now());
+    }
+
+    @Override
+    public Optional<LocalDateTime> findExpiry(String tokenHash) {
+        return revokedTokenRepository.findByTokenHash(tokenHash).map(RevokedToken::getExpiresAt);
+    }
+
+    @Override
+    public Map<String, LocalDateTime> findRevokedSince(LocalDateTime since) {
+        Map<String, LocalDateTime> revoked = new HashMap<>();
+        revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, LocalDateTime.now())
+                .forEach(token -> revoked.put(token.getTokenHash(), token.getExpiresAt()));
+        return revoked;
+    }
+
+    @Override
+    public List<String> findActiveHashes() {
+        return revokedTokenRepository.findActiveHashes(LocalDateTime.now());
+    }
+
+    @Override
+    public void remove(String tokenHash) {
+        revokedTokenRepository.deleteByTokenHash(tokenHash);
+    }
+
+    @Override
+    public int deleteExpired() {
+        return revokedTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+}
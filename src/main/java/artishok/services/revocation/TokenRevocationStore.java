@@ -0,0 +1,18 @@
+package artishok.services.revocation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Общее для всех узлов хранилище отозванных токенов. Токены идентифицируются SHA-256 в hex.
+ */
+public interface TokenRevocationStore {
+    void revoke(String tokenHash, LocalDateTime expiresAt);
+    Optional<LocalDateTime> findExpiry(String tokenHash);
+    Map<String, LocalDateTime> findRevokedSince(LocalDateTime since);
+    List<String> findActiveHashes();
+    void remove(String tokenHash);
+    int deleteExpired();
+}
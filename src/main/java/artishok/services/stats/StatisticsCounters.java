@@ -0,0 +1,183 @@
+package artishok.services.stats;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+
+import artishok.entities.enums.BookingStatus;
+import artishok.entities.enums.GalleryStatus;
+import artishok.entities.enums.UserRole;
+
+/**
+ * Счетчики статистики в памяти: пользователи по роли и активности, галереи и бронирования
+ * по статусу, записи аудита по администратору. Меняются на событиях сущностей после коммита
+ * и периодически сверяются с БД (StatisticsService).
+ */
+@Component
+public class StatisticsCounters {
+
+    private final Group users = new Group(UserRole.values().length * 2);
+    private final Group galleries = new Group(GalleryStatus.values().length);
+    private final Group bookings = new Group(BookingStatus.values().length);
+    private final Map<Long, AtomicLong> auditByAdmin = new ConcurrentHashMap<>();
+    // Число событий аудита с запуска: по нему сверка узнает о событиях во время запроса
+    private long auditVersion;
+
+    public void addUser(UserRole role, Boolean active, long delta) {
+        if (role != null) {
+            users.add(userIndex(role, active), delta);
+        }
+    }
+
+    public void addGallery(GalleryStatus status, long delta) {
+        if (status != null) {
+            galleries.add(status.ordinal(), delta);
+        }
+    }
+
+    public void addBooking(BookingStatus status, long delta) {
+        if (status != null) {
+            bookings.add(status.ordinal(), delta);
+        }
+    }
+
+    public synchronized void addAudit(Long adminId, long delta) {
+        if (adminId != null) {
+            auditVersion++;
+            auditByAdmin.computeIfAbsent(adminId, id -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+
+    public long countUsers(UserRole role) {
+        return users.get(userIndex(role, false)) + users.get(userIndex(role, true));
+    }
+
+    public long countActiveUsers() {
+        long total = 0;
+        for (UserRole role : UserRole.values()) {
+            total += users.get(userIndex(role, true));
+        }
+        return total;
+    }
+
+    public long countAllUsers() {
+        return users.sum();
+    }
+
+    public long countGalleries(GalleryStatus status) {
+        return galleries.get(status.ordinal());
+    }
+
+    public long countBookings(BookingStatus status) {
+        return bookings.get(status.ordinal());
+    }
+
+    public long countAudit(Long adminId) {
+        AtomicLong count = auditByAdmin.get(adminId);
+        return count != null ? count.get() : 0;
+    }
+
+    long usersStamp() {
+        return users.stamp();
+    }
+
+    long galleriesStamp() {
+        return galleries.stamp();
+    }
+
+    long bookingsStamp() {
+        return bookings.stamp();
+    }
+
+    synchronized long auditStamp() {
+        return auditVersion;
+    }
+
+    /**
+     * Замена значений результатом сверки. Если после stamp пришли события, по снимку БД нельзя
+     * понять, попали ли они в него, поэтому замена не выполняется и возвращается false -
+     * сверку группы нужно повторить. Событие, закоммиченное до stamp, снимок видит всегда.
+     */
+    boolean replaceUsers(long stamp, Map<UserRole, long[]> counts) {
+        long[] values = new long[UserRole.values().length * 2];
+        counts.forEach((role, byActive) -> {
+            values[userIndex(role, false)] = byActive[0];
+            values[userIndex(role, true)] = byActive[1];
+        });
+        return users.replace(stamp, values);
+    }
+
+    boolean replaceGalleries(long stamp, Map<GalleryStatus, Long> counts) {
+        long[] values = new long[GalleryStatus.values().length];
+        counts.forEach((status, count) -> values[status.ordinal()] = count);
+        return galleries.replace(stamp, values);
+    }
+
+    boolean replaceBookings(long stamp, Map<BookingStatus, Long> counts) {
+        long[] values = new long[BookingStatus.values().length];
+        counts.forEach((status, count) -> values[status.ordinal()] = count);
+        return bookings.replace(stamp, values);
+    }
+
+    synchronized boolean replaceAudit(long stamp, Map<Long, Long> counts) {
+        if (auditVersion != stamp) {
+            return false;
+        }
+        auditByAdmin.keySet().retainAll(counts.keySet());
+        counts.forEach((adminId, count) -> auditByAdmin.computeIfAbsent(adminId, id -> new AtomicLong())
+                .set(count));
+        return true;
+    }
+
+    private static int userIndex(UserRole role, Boolean active) {
+        return role.ordinal() * 2 + (Boolean.TRUE.equals(active) ? 1 : 0);
+    }
+
+    /**
+     * Значения читаются без блокировки; запись и сверка синхронизированы, чтобы событие
+     * не проскочило между проверкой версии и заменой значений
+     */
+    private static final class Group {
+        private final AtomicLongArray values;
+        // Число событий группы с запуска; счетчик, а не сумма, чтобы +1 и -1 не скрыли друг друга
+        private long version;
+
+        Group(int size) {
+            this.values = new AtomicLongArray(size);
+        }
+
+        synchronized void add(int index, long delta) {
+            version++;
+            values.addAndGet(index, delta);
+        }
+
+        long get(int index) {
+            return values.get(index);
+        }
+
+        long sum() {
+            long total = 0;
+            for (int i = 0; i < values.length(); i++) {
+                total += values.get(i);
+            }
+            return total;
+        }
+
+        synchronized long stamp() {
+            return version;
+        }
+
+        synchronized boolean replace(long stamp, long[] fresh) {
+            if (version != stamp) {
+                return false;
+            }
+            for (int i = 0; i < fresh.length; i++) {
+                values.set(i, fresh[i]);
+            }
+            return true;
+        }
+    }
+}
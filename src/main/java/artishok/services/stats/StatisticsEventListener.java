@@ -0,0 +1,133 @@
+package artishok.services.stats;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import artishok.entities.AdminAuditLog;
+import artishok.entities.Booking;
+import artishok.entities.Gallery;
+import artishok.entities.User;
+import artishok.entities.enums.BookingStatus;
+import artishok.entities.enums.GalleryStatus;
+import artishok.entities.enums.UserRole;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Обновляет StatisticsCounters после коммита вставок, изменений и удалений сущностей.
+ * Слушатель Hibernate, а не JPA @EntityListeners: для изменения нужен прежний статус,
+ * а его дает только PostUpdateEvent.getOldState(). Массовые JPQL-изменения и каскадные
+ * удаления в БД сюда не попадают - их расхождение исправляет сверка. Регистрируется в готовой
+ * SessionFactory, не затрагивая hibernate.integrator_provider и другие настройки Hibernate;
+ * события до регистрации покрывает первая сверка при старте.
+ */
+@Component
+public class StatisticsEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final StatisticsCounters counters;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public StatisticsEventListener(StatisticsCounters counters, EntityManagerFactory entityManagerFactory) {
+        this.counters = counters;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == User.class || type == Gallery.class || type == Booking.class || type == AdminAuditLog.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        apply(event.getEntity(), 1);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        apply(event.getEntity(), -1);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            return;
+        }
+        Object entity = event.getEntity();
+        String[] properties = event.getPersister().getPropertyNames();
+
+        if (entity instanceof User user) {
+            UserRole oldRole = (UserRole) valueOf(properties, oldState, "role");
+            Boolean oldActive = (Boolean) valueOf(properties, oldState, "isActive");
+            if (oldRole != user.getRole() || Boolean.TRUE.equals(oldActive) != Boolean.TRUE.equals(user.getIsActive())) {
+                counters.addUser(oldRole, oldActive, -1);
+                counters.addUser(user.getRole(), user.getIsActive(), 1);
+            }
+        } else if (entity instanceof Gallery gallery) {
+            GalleryStatus oldStatus = (GalleryStatus) valueOf(properties, oldState, "status");
+            if (oldStatus != gallery.getStatus()) {
+                counters.addGallery(oldStatus, -1);
+                counters.addGallery(gallery.getStatus(), 1);
+            }
+        } else if (entity instanceof Booking booking) {
+            BookingStatus oldStatus = (BookingStatus) valueOf(properties, oldState, "status");
+            if (oldStatus != booking.getStatus()) {
+                counters.addBooking(oldStatus, -1);
+                counters.addBooking(booking.getStatus(), 1);
+            }
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void apply(Object entity, long delta) {
+        if (entity instanceof User user) {
+            counters.addUser(user.getRole(), user.getIsActive(), delta);
+        } else if (entity instanceof Gallery gallery) {
+            counters.addGallery(gallery.getStatus(), delta);
+        } else if (entity instanceof Booking booking) {
+            counters.addBooking(booking.getStatus(), delta);
+        } else if (entity instanceof AdminAuditLog log && log.getAdmin() != null) {
+            counters.addAudit(log.getAdmin().getId(), delta);
+        }
+    }
+
+    private static Object valueOf(String[] properties, Object[] state, String property) {
+        for (int i = 0; i < properties.length; i++) {
+            if (properties[i].equals(property)) {
+                return state[i];
+            }
+        }
+        return null;
+    }
+}
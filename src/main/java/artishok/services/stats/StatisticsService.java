@@ -0,0 +1,190 @@
+package artishok.services.stats;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import artishok.entities.enums.BookingStatus;
+import artishok.entities.enums.GalleryStatus;
+import artishok.entities.enums.UserRole;
+import artishok.repositories.AdminAuditLogRepository;
+import artishok.repositories.BookingRepository;
+import artishok.repositories.GalleryRepository;
+import artishok.repositories.UserRepository;
+
+/**
+ * Статистика для панели администратора из счетчиков в памяти: чтение не обращается к БД.
+ * Счетчики заполняются при старте и сверяются с GROUP BY по расписанию, между сверками
+ * их двигает StatisticsEventListener. Пока первая сверка не прошла, в счетчиках только
+ * дельты событий, и ответы берутся из БД.
+ */
+@Service
+public class StatisticsService {
+    private static final int LOAD_ATTEMPTS = 5;
+    private static final int GROUP_ATTEMPTS = 3;
+
+    private final StatisticsCounters counters;
+    private final UserRepository userRepository;
+    private final GalleryRepository galleryRepository;
+    private final BookingRepository bookingRepository;
+    private final AdminAuditLogRepository adminAuditLogRepository;
+    private final boolean reconcileAudit;
+
+    private volatile boolean loaded;
+
+    public StatisticsService(StatisticsCounters counters, UserRepository userRepository,
+            GalleryRepository galleryRepository, BookingRepository bookingRepository,
+            AdminAuditLogRepository adminAuditLogRepository,
+            @Value("${app.stats.reconcile-audit:true}") boolean reconcileAudit) {
+        this.counters = counters;
+        this.userRepository = userRepository;
+        this.galleryRepository = galleryRepository;
+        this.bookingRepository = bookingRepository;
+        this.adminAuditLogRepository = adminAuditLogRepository;
+        this.reconcileAudit = reconcileAudit;
+    }
+
+    /**
+     * Начальное заполнение; если БД недоступна все попытки, счетчики заполнит плановая сверка
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (int attempt = 0; attempt < LOAD_ATTEMPTS && !loaded; attempt++) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:600000}",
+            initialDelayString = "${app.stats.reconcile-interval-ms:600000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * true, если все группы счетчиков заменены результатом сверки. Сверка группы, во время
+     * запроса которой пришли события, отбрасывается и повторяется до GROUP_ATTEMPTS раз;
+     * не сошедшаяся группа сохраняет прежние значения, которые продолжают двигать события
+     */
+    public boolean reconcile() {
+        try {
+            boolean reconciled = attempt("пользователи", this::reconcileUsers);
+            reconciled &= attempt("галереи", this::reconcileGalleries);
+            reconciled &= attempt("бронирования", this::reconcileBookings);
+            // Без сверки аудита его счетчики содержат только дельты, поэтому до загрузки
+            // аудит всегда читается из БД (см. countAuditLogs)
+            if (reconcileAudit) {
+                reconciled &= attempt("аудит", this::reconcileAudit);
+            }
+            if (reconciled) {
+                loaded = true;
+            }
+            return reconciled;
+        } catch (RuntimeException e) {
+            System.err.println("Ошибка сверки статистики: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public long countUsers(UserRole role) {
+        return loaded ? counters.countUsers(role) : userRepository.countByRole(role);
+    }
+
+    public long countAllUsers() {
+        return loaded ? counters.countAllUsers() : userRepository.count();
+    }
+
+    public long countActiveUsers() {
+        return loaded ? counters.countActiveUsers() : userRepository.countByIsActiveTrue();
+    }
+
+    public long countAuditLogs(Long adminId) {
+        return loaded && reconcileAudit ? counters.countAudit(adminId) : adminAuditLogRepository.countByAdminId(adminId);
+    }
+
+    public Map<String, Long> getGalleriesByStatus() {
+        Map<GalleryStatus, Long> fromDb = loaded ? null : galleryCounts();
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (GalleryStatus status : GalleryStatus.values()) {
+            result.put(status.name(), fromDb != null ? fromDb.getOrDefault(status, 0L) : counters.countGalleries(status));
+        }
+        return result;
+    }
+
+    public Map<String, Long> getBookingsByStatus() {
+        Map<BookingStatus, Long> fromDb = loaded ? null : bookingCounts();
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (BookingStatus status : BookingStatus.values()) {
+            result.put(status.name(), fromDb != null ? fromDb.getOrDefault(status, 0L) : counters.countBookings(status));
+        }
+        return result;
+    }
+
+    private boolean attempt(String group, BooleanSupplier reconcileGroup) {
+        for (int i = 0; i < GROUP_ATTEMPTS; i++) {
+            if (reconcileGroup.getAsBoolean()) {
+                return true;
+            }
+        }
+        System.err.println("Сверка статистики (" + group + ") пропущена: счетчики менялись во время запроса");
+        return false;
+    }
+
+    private boolean reconcileUsers() {
+        long stamp = counters.usersStamp();
+        Map<UserRole, long[]> counts = new EnumMap<>(UserRole.class);
+        for (Object[] row : userRepository.countGroupedByRoleAndActive()) {
+            if (row[0] != null) {
+                long[] byActive = counts.computeIfAbsent((UserRole) row[0], role -> new long[2]);
+                byActive[Boolean.TRUE.equals(row[1]) ? 1 : 0] += (Long) row[2];
+            }
+        }
+        return counters.replaceUsers(stamp, counts);
+    }
+
+    private boolean reconcileGalleries() {
+        long stamp = counters.galleriesStamp();
+        return counters.replaceGalleries(stamp, galleryCounts());
+    }
+
+    private boolean reconcileBookings() {
+        long stamp = counters.bookingsStamp();
+        return counters.replaceBookings(stamp, bookingCounts());
+    }
+
+    private boolean reconcileAudit() {
+        long stamp = counters.auditStamp();
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : adminAuditLogRepository.countGroupedByAdmin()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counters.replaceAudit(stamp, counts);
+    }
+
+    private Map<GalleryStatus, Long> galleryCounts() {
+        Map<GalleryStatus, Long> counts = new EnumMap<>(GalleryStatus.class);
+        for (Object[] row : galleryRepository.countGroupedByStatus()) {
+            if (row[0] != null) {
+                counts.put((GalleryStatus) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+
+    private Map<BookingStatus, Long> bookingCounts() {
+        Map<BookingStatus, Long> counts = new EnumMap<>(BookingStatus.class);
+        for (Object[] row : bookingRepository.countGroupedByStatus()) {
+            if (row[0] != null) {
+                counts.put((BookingStatus) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+}
@@ -7,11 +7,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -19,13 +22,23 @@ public class MinioStorageService implements StorageService {
     
     private final MinioClient minioClient;
     private final String bucketName;
+    private final Semaphore streamPermits;
     
     @Value("${minio.public-url}")
     private String publicUrl;
     
-    public MinioStorageService(MinioClient minioClient, String bucketName) {
+    // Размер части multipart-загрузки, не меньше 5MB (минимум S3); клиент MinIO держит в памяти одну часть
+    @Value("${app.storage.part-size:5242880}")
+    private long partSize;
+    
+    @Value("${app.storage.stream-wait-ms:30000}")
+    private long streamWaitMillis;
+    
+    public MinioStorageService(MinioClient minioClient, String bucketName,
+            @Value("${app.storage.max-concurrent-streams:8}") int maxConcurrentStreams) {
         this.minioClient = minioClient;
         this.bucketName = bucketName;
+        this.streamPermits = new Semaphore(maxConcurrentStreams, true);
         initializeBucket();
     }
     
@@ -98,6 +111,57 @@ public class MinioStorageService implements StorageService {
         }
     }
     
+    /**
+     * Тело запроса уходит в MinIO частями по part-size. Число одновременных потоковых загрузок
+     * ограничено, так что память под буферы не больше max-concurrent-streams * part-size
+     */
+    @Override
+    public String uploadStream(InputStream stream, long size, String objectName, String contentType) {
+        try {
+            if (!streamPermits.tryAcquire(streamWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Слишком много одновременных загрузок, повторите позже");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Загрузка прервана");
+        }
+        
+        try {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(stream, size, partSize)
+                    .contentType(contentType)
+                    .build());
+            return objectName;
+        } catch (Exception e) {
+            // Превышение лимита размера - ошибка клиента, а не хранилища
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SizeLimitedInputStream.LimitExceededException) {
+                    throw new IllegalArgumentException(cause.getMessage());
+                }
+            }
+            throw new RuntimeException("Не удалось загрузить файл", e);
+        } finally {
+            streamPermits.release();
+        }
+    }
+    
+    @Override
+    public String uploadBytes(byte[] data, String objectName, String contentType) {
+        try {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(new ByteArrayInputStream(data), data.length, -1)
+                    .contentType(contentType)
+                    .build());
+            return objectName;
+        } catch (Exception e) {
+            throw new RuntimeException("Не удалось загрузить файл", e);
+        }
+    }
+    
     @Override
     public String getFileUrl(String objectName) {
         if (publicUrl.endsWith("/")) {
@@ -118,4 +182,34 @@ public class MinioStorageService implements StorageService {
         	System.out.println("Ошибка при удалении файла из MinIO");
         }
     }
-}
\ No newline at end of file
+    
+    @Override
+    public InputStream downloadFile(String objectName) {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build());
+        } catch (Exception e) {
+            throw new RuntimeException("Не удалось прочитать файл " + objectName, e);
+        }
+    }
+    
+    @Override
+    public boolean fileExists(String objectName) {
+        try {
+            minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return false;
+            }
+            throw new RuntimeException("Не удалось проверить файл " + objectName, e);
+        } catch (Exception e) {
+            throw new RuntimeException("Не удалось проверить файл " + objectName, e);
+        }
+    }
+}
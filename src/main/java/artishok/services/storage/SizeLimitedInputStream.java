@@ -0,0 +1,69 @@
+package artishok.services.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Поток, обрывающий чтение после maxBytes: у потоковой загрузки размер заранее может быть
+ * неизвестен (chunked), поэтому ограничение проверяется по мере чтения
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+    public static class LimitExceededException extends IOException {
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    private final long maxBytes;
+    private final String message;
+    private long read;
+
+    public SizeLimitedInputStream(InputStream in, long maxBytes, String message) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.message = message;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getBytesRead() {
+        return read;
+    }
+
+    private void count(long n) throws LimitExceededException {
+        read += n;
+        if (read > maxBytes) {
+            throw new LimitExceededException(message);
+        }
+    }
+}
@@ -1,9 +1,22 @@
 package artishok.services.storage;
 
+import java.io.InputStream;
+
 import org.springframework.web.multipart.MultipartFile;
 
 public interface StorageService {
     String uploadFile(MultipartFile file, String objectName, String contentType);
+    
+    /**
+     * Загрузка из потока без промежуточного файла; size = -1, если длина неизвестна
+     */
+    String uploadStream(InputStream stream, long size, String objectName, String contentType);
+    /**
+     * Загрузка небольшого объекта, целиком находящегося в памяти
+     */
+    String uploadBytes(byte[] data, String objectName, String contentType);
     String getFileUrl(String objectName);
     void deleteFile(String objectName);
+    InputStream downloadFile(String objectName);
+    boolean fileExists(String objectName);
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package artishok.services.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncBatchWriterTest {
+
+    /**
+     * Фоновый поток не запущен, поэтому буфер емкостью 2 переполняется третьим событием
+     */
+    @Test
+    void dropPolicyCountsOverflowAndStopWritesBufferedEvents() {
+        RecordingWriter writer = new RecordingWriter(OverflowPolicy.DROP, 0);
+        writer.submit(1);
+        writer.submit(2);
+        writer.submit(3);
+
+        assertEquals(1, writer.getDroppedCount());
+        assertEquals(2, writer.getPendingCount());
+        assertEquals(0, writer.getWrittenCount());
+
+        writer.stop();
+        assertEquals(List.of(1, 2), writer.written());
+        assertEquals(2, writer.getWrittenCount());
+    }
+
+    @Test
+    void callerRunsPolicyWritesOverflowInCallerThread() {
+        RecordingWriter writer = new RecordingWriter(OverflowPolicy.CALLER_RUNS, 0);
+        writer.submit(1);
+        writer.submit(2);
+        writer.submit(3);
+
+        assertEquals(0, writer.getDroppedCount());
+        assertEquals(List.of(List.of(3)), writer.batches());
+        assertEquals(List.of(Thread.currentThread()), writer.threads());
+
+        writer.stop();
+        assertEquals(List.of(3, 1, 2), writer.written());
+    }
+
+    @Test
+    void blockPolicyDropsAfterTimeoutWhenNothingDrains() {
+        RecordingWriter writer = new RecordingWriter(OverflowPolicy.BLOCK, 50);
+        writer.submit(1);
+        writer.submit(2);
+
+        long started = System.nanoTime();
+        writer.submit(3);
+        long waitedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        assertTrue(waitedMillis >= 50, "ожидание " + waitedMillis + " мс короче таймаута");
+        assertEquals(1, writer.getDroppedCount());
+        writer.stop();
+        assertEquals(List.of(1, 2), writer.written());
+    }
+
+    @Test
+    void blockPolicyWaitsForWorkerAndKeepsOrder() {
+        RecordingWriter writer = new RecordingWriter(OverflowPolicy.BLOCK, 10_000);
+        writer.start();
+        for (int i = 0; i < 1000; i++) {
+            writer.submit(i);
+        }
+        writer.stop();
+
+        assertEquals(0, writer.getDroppedCount());
+        assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), writer.written());
+    }
+
+    private static final class RecordingWriter extends AsyncBatchWriter<Integer> {
+        private final List<List<Integer>> batches = new ArrayList<>();
+        private final List<Thread> threads = new ArrayList<>();
+
+        RecordingWriter(OverflowPolicy policy, long blockTimeoutMillis) {
+            super("test-writer", 2, 1, 1, policy, blockTimeoutMillis);
+        }
+
+        @Override
+        protected synchronized void writeBatch(List<Integer> batch) {
+            batches.add(new ArrayList<>(batch));
+            threads.add(Thread.currentThread());
+        }
+
+        synchronized List<List<Integer>> batches() {
+            return new ArrayList<>(batches);
+        }
+
+        synchronized List<Thread> threads() {
+            return new ArrayList<>(threads);
+        }
+
+        synchronized List<Integer> written() {
+            return batches.stream().flatMap(List::stream).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package artishok.services.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import artishok.services.logging.AuditSpool.AuditEvent;
+
+class AuditSpoolTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoverReturnsOnlyUnacknowledgedEvents() {
+        Path file = dir.resolve("audit.log");
+        AuditSpool spool = new AuditSpool(file, false, 1 << 20);
+        assertTrue(spool.recover().isEmpty());
+        List<AuditEvent> events = spool.append(7L, "APPROVE_GALLERY", List.of(10L, 11L, 12L));
+        spool.acknowledge(events.subList(0, 1));
+        spool.close();
+
+        AuditSpool reopened = new AuditSpool(file, false, 1 << 20);
+        assertEquals(events.subList(1, 3), reopened.recover());
+        reopened.close();
+    }
+
+    /**
+     * Падение посреди записи оставляет строку без перевода строки. Обрезанное поле может остаться
+     * корректным (base64 действия BLOCK_USER -> BLOCK_), поэтому такая строка отбрасывается целиком.
+     */
+    @Test
+    void recoverDropsTruncatedTailAndKeepsAppending() throws IOException {
+        Path file = dir.resolve("audit.log");
+        AuditSpool spool = new AuditSpool(file, false, 1 << 20);
+        spool.recover();
+        List<AuditEvent> events = spool.append(7L, "BLOCK_USER", List.of(20L, 21L));
+        spool.close();
+
+        String tornLine = "E\t3\t7\t130\t" + events.get(0).timestamp() + "\tQkxPQ0tfVVNFUg";
+        Files.writeString(file, tornLine.substring(0, tornLine.length() - 6), StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        AuditSpool recovered = new AuditSpool(file, false, 1 << 20);
+        assertEquals(events, recovered.recover());
+
+        List<AuditEvent> next = recovered.append(7L, "BLOCK_USER", List.of(22L));
+        assertEquals(3, next.get(0).seq());
+        recovered.close();
+
+        AuditSpool again = new AuditSpool(file, false, 1 << 20);
+        List<AuditEvent> all = again.recover();
+        assertEquals(3, all.size());
+        assertEquals(22L, all.get(2).targetEntityId());
+        again.close();
+    }
+}
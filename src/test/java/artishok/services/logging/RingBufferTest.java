@@ -0,0 +1,116 @@
+package artishok.services.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class RingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpAndFullBufferRejectsOffer() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(5);
+        assertEquals(8, buffer.capacity());
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(8));
+        assertEquals(8, buffer.size());
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.offer(8));
+    }
+
+    /**
+     * Несколько производителей и потребителей: каждый элемент получен ровно один раз,
+     * и каждый потребитель видит элементы одного производителя в порядке их вставки
+     */
+    @Test
+    void concurrentProducersAndConsumersLoseNothingAndKeepOrder() throws InterruptedException {
+        int producers = 4;
+        int consumers = 3;
+        int perProducer = 100_000;
+        int total = producers * perProducer;
+        RingBuffer<Long> buffer = new RingBuffer<>(1024);
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger consumed = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        List<List<Long>> received = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            threads.add(new Thread(() -> {
+                await(start);
+                for (long i = 0; i < perProducer; i++) {
+                    Long item = producer * perProducer + i;
+                    while (!buffer.offer(item)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            List<Long> items = new ArrayList<>();
+            received.add(items);
+            threads.add(new Thread(() -> {
+                await(start);
+                while (consumed.get() < total) {
+                    Long item = buffer.poll();
+                    if (item == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    items.add(item);
+                    consumed.incrementAndGet();
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive(), "поток не завершился за 30 с");
+        }
+
+        boolean[] seen = new boolean[total];
+        for (List<Long> items : received) {
+            long[] lastByProducer = new long[producers];
+            Arrays.fill(lastByProducer, -1);
+            for (long item : items) {
+                assertFalse(seen[(int) item], "элемент получен дважды: " + item);
+                seen[(int) item] = true;
+                int producer = (int) (item / perProducer);
+                long index = item % perProducer;
+                assertTrue(index > lastByProducer[producer], "нарушен порядок производителя " + producer);
+                lastByProducer[producer] = index;
+            }
+        }
+        for (int i = 0; i < total; i++) {
+            assertTrue(seen[i], "элемент потерян: " + i);
+        }
+        assertEquals(0, buffer.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
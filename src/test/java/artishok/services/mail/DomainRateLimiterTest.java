@@ -0,0 +1,63 @@
+package artishok.services.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class DomainRateLimiterTest {
+
+    private long now = 1_000_000_000L;
+
+    @Test
+    void burstIsServedThenSendingIsDeferredUntilNextToken() {
+        DomainRateLimiter limiter = new DomainRateLimiter(2, 3, Map.of(), () -> now);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("user" + i + "@example.com"));
+        }
+
+        long wait = limiter.tryAcquire("late@example.com");
+        assertTrue(Math.abs(wait - TimeUnit.MILLISECONDS.toNanos(500)) <= 1, "ожидание " + wait + " нс");
+
+        now += TimeUnit.MILLISECONDS.toNanos(250);
+        assertTrue(limiter.tryAcquire("late@example.com") > 0);
+
+        now += TimeUnit.MILLISECONDS.toNanos(260);
+        assertEquals(0, limiter.tryAcquire("late@example.com"));
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToBurst() {
+        DomainRateLimiter limiter = new DomainRateLimiter(10, 2, Map.of(), () -> now);
+        limiter.tryAcquire("a@example.com");
+        limiter.tryAcquire("a@example.com");
+
+        now += TimeUnit.MINUTES.toNanos(1);
+        assertEquals(0, limiter.tryAcquire("a@example.com"));
+        assertEquals(0, limiter.tryAcquire("a@example.com"));
+        assertTrue(limiter.tryAcquire("a@example.com") > 0);
+    }
+
+    @Test
+    void domainsHaveSeparateBucketsAndOwnLimits() {
+        DomainRateLimiter limiter = new DomainRateLimiter(10, 1,
+                DomainRateLimiter.parseLimits("Slow.example:0.5, fast.example:100"), () -> now);
+
+        assertEquals(0, limiter.tryAcquire("a@slow.example"));
+        long wait = limiter.tryAcquire("B@SLOW.EXAMPLE");
+        assertTrue(Math.abs(wait - TimeUnit.SECONDS.toNanos(2)) <= 1, "ожидание " + wait + " нс");
+
+        assertEquals(0, limiter.tryAcquire("a@fast.example"));
+        assertEquals(0, limiter.tryAcquire("a@other.example"));
+    }
+
+    @Test
+    void malformedLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DomainRateLimiter.parseLimits("gmail.com"));
+        assertEquals(Map.of(), DomainRateLimiter.parseLimits(" "));
+    }
+}
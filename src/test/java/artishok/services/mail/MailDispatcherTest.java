@@ -0,0 +1,117 @@
+package artishok.services.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import artishok.services.mail.MailDispatcher.OutboxMessage;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+
+/**
+ * Переходы статусов письма без БД и SMTP: JdbcTemplate записывает выполненные UPDATE
+ */
+class MailDispatcherTest {
+
+    private final RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+
+    @Test
+    void transientFailureIsRescheduledWithBackoff() {
+        MailDispatcher dispatcher = dispatcher(5, 10);
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.retry(message(1), new MessagingException("421 try later"), false);
+
+        Object[] args = jdbc.single();
+        assertEquals("PENDING", args[0]);
+        assertEquals(2, args[1]);
+        // Вторая попытка: 60 с ±20%
+        Duration delay = Duration.between(before, ((Timestamp) args[2]).toLocalDateTime());
+        assertTrue(delay.toMillis() >= 48_000 && delay.toMillis() <= 73_000, "задержка " + delay);
+        assertEquals(1, dispatcher.getRetriedCount());
+    }
+
+    @Test
+    void permanentFailureGoesStraightToFailed() {
+        MailDispatcher dispatcher = dispatcher(5, 10);
+        dispatcher.retry(message(0), new SendFailedException("550 no such user"), true);
+
+        Object[] args = jdbc.single();
+        assertEquals("FAILED", args[0]);
+        assertEquals(1, args[1]);
+        assertEquals(1, dispatcher.getFailedCount());
+    }
+
+    @Test
+    void lastTransientFailureGoesToFailed() {
+        MailDispatcher dispatcher = dispatcher(5, 10);
+        dispatcher.retry(message(2), new MessagingException("421 try later"), false);
+
+        Object[] args = jdbc.single();
+        assertEquals("FAILED", args[0]);
+        assertEquals(3, args[1]);
+        assertEquals(0, dispatcher.getRetriedCount());
+    }
+
+    @Test
+    void messageReclaimedAfterLastLeaseFailsWithoutSending() {
+        MailDispatcher dispatcher = dispatcher(5, 10);
+        assertNull(dispatcher.process(null, message(3)));
+
+        Object[] args = jdbc.single();
+        assertEquals("FAILED", args[0]);
+        assertEquals(3, args[1]);
+        assertEquals(42L, args[4]);
+        assertEquals(1, dispatcher.getFailedCount());
+    }
+
+    @Test
+    void rateLimitedMessageIsDeferredWithoutCountingAnAttempt() {
+        // Пустое ведро: первое же письмо домену ждет токена 1 с
+        MailDispatcher dispatcher = dispatcher(1, 0);
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.process(null, message(0));
+
+        assertTrue(jdbc.statements.get(0).contains("status = 'PENDING', next_attempt_at = ?"));
+        Object[] args = jdbc.single();
+        Duration delay = Duration.between(before, ((Timestamp) args[0]).toLocalDateTime());
+        assertTrue(delay.toMillis() >= 1_000 && delay.toMillis() < 2_000, "задержка " + delay);
+        assertEquals(42L, args[1]);
+        assertEquals(0, dispatcher.getRetriedCount());
+    }
+
+    private MailDispatcher dispatcher(double domainRate, double domainBurst) {
+        return new MailDispatcher(jdbc, new JavaMailSenderImpl(), "noreply@artishok.com", 1, 20, 1000, 120, 3,
+                30_000, 3_600_000, domainRate, domainBurst, "", 7);
+    }
+
+    private static OutboxMessage message(int attempts) {
+        return new OutboxMessage(42L, "user@example.com", "Тема", "<p>Текст</p>", attempts);
+    }
+
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+        private final List<String> statements = new ArrayList<>();
+        private final List<Object[]> updates = new ArrayList<>();
+
+        @Override
+        public int update(String sql, Object... args) {
+            statements.add(sql);
+            updates.add(args);
+            return 1;
+        }
+
+        Object[] single() {
+            assertEquals(1, updates.size());
+            return updates.get(0);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package artishok.services.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(8, 30_000, 3_600_000);
+
+    @Test
+    void delayDoublesPerAttemptUpToMaximum() {
+        assertEquals(30_000, policy.delayMillis(1, 0.5));
+        assertEquals(60_000, policy.delayMillis(2, 0.5));
+        assertEquals(120_000, policy.delayMillis(3, 0.5));
+        assertEquals(1_920_000, policy.delayMillis(7, 0.5));
+        assertEquals(3_600_000, policy.delayMillis(8, 0.5));
+        assertEquals(3_600_000, policy.delayMillis(100, 0.5));
+    }
+
+    @Test
+    void jitterStaysWithinTwentyPercent() {
+        assertEquals(24_000, policy.delayMillis(1, 0));
+        assertTrue(policy.delayMillis(1, 0.999_999) < 36_000);
+        assertTrue(policy.delayMillis(1, 0.999_999) >= 35_999);
+    }
+
+    @Test
+    void permanentFailureOrLastAttemptIsExhausted() {
+        assertFalse(policy.isExhausted(1, false));
+        assertFalse(policy.isExhausted(7, false));
+        assertTrue(policy.isExhausted(8, false));
+        assertTrue(policy.isExhausted(1, true));
+    }
+}
@@ -0,0 +1,76 @@
+package artishok.services.revocation;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void insertedHashesAreNeverReportedAbsent() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(sha256("revoked-" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(sha256("revoked-" + i)), "ложноотрицательный ответ для revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(sha256("active-" + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "ложноположительных " + falsePositives + " из 10000 при цели 1%");
+    }
+
+    @Test
+    void concurrentPutsLoseNoBits() throws InterruptedException {
+        BloomFilter filter = BloomFilter.create(40_000, 0.01);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    filter.put(sha256("revoked-" + thread + "-" + i));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int t = 0; t < 4; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(filter.mightContain(sha256("revoked-" + t + "-" + i)));
+            }
+        }
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(filter.mightContain(sha256("token-" + i)));
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}